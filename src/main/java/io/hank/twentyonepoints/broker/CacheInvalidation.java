@@ -0,0 +1,12 @@
+package io.hank.twentyonepoints.broker;
+
+import java.io.Serializable;
+
+/**
+ * A message telling every node to evict an entry from one of its node-local caches.
+ *
+ * @param region the name of the node-local cache.
+ * @param key the key to evict, or {@code null} to clear the whole cache.
+ * @param origin the id of the node which sent the message.
+ */
+record CacheInvalidation(String region, String key, String origin) implements Serializable {}
@@ -0,0 +1,110 @@
+package io.hank.twentyonepoints.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bus broadcasting cache invalidations to all the nodes, over a Redis pub/sub topic.
+ * <p>
+ * The distributed caches are shared by all the nodes and need none of this: it is meant for the node-local
+ * caches sitting in front of Redis or the database, which would otherwise stay stale on the other nodes.
+ * Invalidations are applied locally right away and to the other nodes asynchronously. Pub/sub does not
+ * redeliver the messages sent while a node was disconnected, so node-local caches must still expire their
+ * entries.
+ */
+@Component
+public class CacheInvalidationBus implements DisposableBean {
+
+    public static final String TOPIC = "cache-invalidations";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, List<Consumer<String>>> listenersByRegion = new ConcurrentHashMap<>();
+
+    private final RTopic topic;
+
+    private final int topicListenerId;
+
+    private final Counter published;
+
+    private final Counter received;
+
+    public CacheInvalidationBus(RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        this.topic = redissonClient.getTopic(TOPIC);
+        this.topicListenerId = topic.addListener(CacheInvalidation.class, (channel, invalidation) -> receive(invalidation));
+        this.published = Counter.builder("cache.invalidations")
+            .description("Number of cache invalidations sent to the other nodes")
+            .tag("direction", "published")
+            .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidations")
+            .description("Number of cache invalidations received from the other nodes")
+            .tag("direction", "received")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Register a node-local cache.
+     *
+     * @param region the name of the cache.
+     * @param evict the callback evicting a key, called with {@code null} to clear the whole cache.
+     */
+    public void subscribe(String region, Consumer<String> evict) {
+        listenersByRegion.computeIfAbsent(region, key -> new CopyOnWriteArrayList<>()).add(evict);
+    }
+
+    /**
+     * Evict a key from a node-local cache, on every node.
+     *
+     * @param region the name of the cache.
+     * @param key the key to evict, or {@code null} to clear the whole cache.
+     */
+    public void invalidate(String region, String key) {
+        LOG.debug("Invalidating {} in cache {} on all nodes", key, region);
+        apply(region, key);
+        topic
+            .publishAsync(new CacheInvalidation(region, key, nodeId))
+            .whenComplete((clients, e) -> {
+                if (e != null) {
+                    LOG.warn("Could not send the invalidation of {} in cache {} to the other nodes: {}", key, region, e.getMessage());
+                } else {
+                    published.increment();
+                }
+            });
+    }
+
+    private void receive(CacheInvalidation invalidation) {
+        if (!nodeId.equals(invalidation.origin())) {
+            received.increment();
+            apply(invalidation.region(), invalidation.key());
+        }
+    }
+
+    private void apply(String region, String key) {
+        for (Consumer<String> evict : listenersByRegion.getOrDefault(region, List.of())) {
+            try {
+                evict.accept(key);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not evict {} from cache {}", key, region, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        topic.removeListener(topicListenerId);
+    }
+}
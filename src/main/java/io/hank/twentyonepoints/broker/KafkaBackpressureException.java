@@ -0,0 +1,22 @@
+package io.hank.twentyonepoints.broker;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when messages cannot be accepted for publishing right now, as too many are still waiting to be
+ * acknowledged or the producer buffer is full.
+ */
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Kafka producer is saturated, retry later")
+public class KafkaBackpressureException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public KafkaBackpressureException(String message) {
+        super(message);
+    }
+
+    public KafkaBackpressureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
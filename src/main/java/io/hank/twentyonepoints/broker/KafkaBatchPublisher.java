@@ -0,0 +1,122 @@
+package io.hank.twentyonepoints.broker;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publisher of message batches, through the {@code spring.kafka} producer rather than the stream bindings.
+ * <p>
+ * Messages are handed to the producer without waiting, which batches and compresses them, and the
+ * acknowledgements are collected asynchronously. The number of messages waiting for an acknowledgement is
+ * bounded: beyond it, or when the producer buffer is full, publishing fails right away with a
+ * {@link KafkaBackpressureException} instead of queueing more work.
+ */
+@Component
+public class KafkaBatchPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaBatchPublisher.class);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final String topic;
+
+    private final int maxInFlightMessages;
+
+    private final Semaphore inFlightMessages;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter rejectedMessages;
+
+    public KafkaBatchPublisher(
+        KafkaTemplate<String, String> kafkaTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.topic = applicationProperties.getKafka().getPublishTopic();
+        this.maxInFlightMessages = applicationProperties.getKafka().getMaxInFlightMessages();
+        this.inFlightMessages = new Semaphore(maxInFlightMessages);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("kafka.publish.in.flight", inFlightMessages, semaphore -> maxInFlightMessages - semaphore.availablePermits())
+            .description("Number of published messages waiting for an acknowledgement")
+            .register(meterRegistry);
+        this.rejectedMessages = Counter.builder("kafka.publish.rejected")
+            .description("Number of messages refused because the producer was saturated")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Publish a batch of messages.
+     *
+     * @param messages the messages to publish, in order.
+     * @return the acknowledgements of the messages, in the same order.
+     * @throws KafkaBackpressureException if too many messages are waiting for an acknowledgement.
+     */
+    public CompletableFuture<List<KafkaPublishResult>> publish(List<String> messages) {
+        if (!inFlightMessages.tryAcquire(messages.size())) {
+            rejectedMessages.increment(messages.size());
+            throw new KafkaBackpressureException("More than " + maxInFlightMessages + " messages waiting for an acknowledgement");
+        }
+        LOG.debug("Publishing a batch of {} messages to {}", messages.size(), topic);
+        List<CompletableFuture<KafkaPublishResult>> results = messages.stream().map(this::send).toList();
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).handle((ignored, e) -> {
+            if (e != null) {
+                if (isProducerTimeout(e)) {
+                    throw new KafkaBackpressureException("Kafka producer timed out, its buffer is full or the brokers are unreachable", e);
+                }
+                throw e instanceof CompletionException completionException ? completionException : new CompletionException(e);
+            }
+            return results.stream().map(CompletableFuture::join).toList();
+        });
+    }
+
+    private CompletableFuture<KafkaPublishResult> send(String message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<KafkaPublishResult> result;
+        try {
+            result = kafkaTemplate
+                .send(topic, message)
+                .thenApply(sendResult ->
+                    new KafkaPublishResult(
+                        sendResult.getRecordMetadata().topic(),
+                        sendResult.getRecordMetadata().partition(),
+                        sendResult.getRecordMetadata().offset()
+                    )
+                );
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((acknowledgement, e) -> {
+            inFlightMessages.release();
+            sample.stop(
+                Timer.builder("kafka.publish.latency")
+                    .description("Time between handing a message to the producer and its acknowledgement")
+                    .tag("result", e == null ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+            );
+        });
+    }
+
+    private static boolean isProducerTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
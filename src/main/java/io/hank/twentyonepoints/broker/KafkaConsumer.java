@@ -1,51 +1,43 @@
 package io.hank.twentyonepoints.broker;
 
-import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
-
-import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Component
 public class KafkaConsumer implements Consumer<String> {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConsumer.class);
 
-    private Map<String, SseEmitter> emitters = new HashMap<>();
+    private final SseEmitterRegistry sseEmitterRegistry;
 
-    public SseEmitter register(String key) {
-        LOG.debug("Registering sse client for {}", key);
-        SseEmitter emitter = new SseEmitter();
-        emitter.onCompletion(() -> emitters.remove(key));
-        emitters.put(key, emitter);
-        return emitter;
-    }
+    private final ObjectMapper objectMapper;
 
-    public void unregister(String key) {
-        LOG.debug("Unregistering sse emitter for: {}", key);
-        Optional.ofNullable(emitters.get(key)).ifPresent(SseEmitter::complete);
+    public KafkaConsumer(SseEmitterRegistry sseEmitterRegistry, ObjectMapper objectMapper) {
+        this.sseEmitterRegistry = sseEmitterRegistry;
+        this.objectMapper = objectMapper;
     }
 
     @Override
     public void accept(String input) {
         LOG.debug("Got message from kafka stream: {}", input);
-        emitters
-            .entrySet()
-            .stream()
-            .map(Map.Entry::getValue)
-            .forEach((SseEmitter emitter) -> {
-                try {
-                    emitter.send(event().data(input, MediaType.TEXT_PLAIN));
-                } catch (IOException e) {
-                    LOG.debug("error sending sse message, {}", input);
+        sseEmitterRegistry.publish(readMessage(input));
+    }
+
+    private SseMessage readMessage(String input) {
+        if (input != null && input.startsWith("{")) {
+            try {
+                SseMessage message = objectMapper.readValue(input, SseMessage.class);
+                if (message.data() != null && message.hasTarget()) {
+                    return message;
                 }
-            });
+            } catch (JsonProcessingException e) {
+                LOG.debug("Message is not an sse envelope, broadcasting it as is: {}", e.getMessage());
+            }
+        }
+        return SseMessage.toAll(input);
     }
 }
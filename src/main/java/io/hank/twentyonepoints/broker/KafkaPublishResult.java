@@ -0,0 +1,6 @@
+package io.hank.twentyonepoints.broker;
+
+/**
+ * Acknowledgement of a published message: where it was written.
+ */
+public record KafkaPublishResult(String topic, int partition, long offset) {}
@@ -0,0 +1,127 @@
+package io.hank.twentyonepoints.broker;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A server-sent events connection of a user, with its own bounded send queue.
+ * <p>
+ * At most one task drains the queue at any time, so events are sent in order and the
+ * emitter is only ever written to by one thread.
+ */
+final class SseConnection {
+
+    private final String login;
+
+    private final Set<String> groups;
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<SseEvent> sendQueue;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final long openedAt = System.nanoTime();
+
+    private volatile long lastActivity = openedAt;
+
+    SseConnection(String login, Set<String> groups, SseEmitter emitter, int sendQueueCapacity) {
+        this.login = login;
+        this.groups = groups;
+        this.emitter = emitter;
+        this.sendQueue = new ArrayBlockingQueue<>(sendQueueCapacity);
+    }
+
+    String getLogin() {
+        return login;
+    }
+
+    /**
+     * The groups of the user, i.e. its authorities when the connection was opened.
+     */
+    Set<String> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Check whether a message is for this connection. The login takes precedence over the group, as when routing it.
+     */
+    boolean isTargetOf(SseMessage message) {
+        if (message.login() != null) {
+            return login.equals(message.login());
+        }
+        if (message.group() != null) {
+            return groups.contains(message.group());
+        }
+        return true;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Queue an event without blocking.
+     *
+     * @return {@code false} if the send queue is full.
+     */
+    boolean offer(SseEvent event) {
+        return sendQueue.offer(event);
+    }
+
+    SseEvent poll() {
+        return sendQueue.poll();
+    }
+
+    boolean hasQueuedEvents() {
+        return !sendQueue.isEmpty();
+    }
+
+    int getQueueDepth() {
+        return sendQueue.size();
+    }
+
+    long getOpenedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Record a successful write to the client.
+     */
+    void markActive() {
+        lastActivity = System.nanoTime();
+    }
+
+    /**
+     * @return the nanoseconds elapsed since the last successful write, or since the connection was opened.
+     */
+    long getIdleNanos() {
+        return System.nanoTime() - lastActivity;
+    }
+
+    boolean startDraining() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void stopDraining() {
+        draining.set(false);
+    }
+
+    /**
+     * Mark the connection as closed.
+     *
+     * @return {@code true} if the connection was open until now.
+     */
+    boolean markClosed() {
+        return closed.compareAndSet(false, true);
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+}
@@ -0,0 +1,17 @@
+package io.hank.twentyonepoints.broker;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when this node already holds as many server-sent events connections as it is allowed to.
+ */
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Too many server-sent events connections")
+public class SseConnectionLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SseConnectionLimitException(int maxConnections) {
+        super("Connection limit of " + maxConnections + " server-sent events connections reached");
+    }
+}
@@ -0,0 +1,410 @@
+package io.hank.twentyonepoints.broker;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Registry of the server-sent events connections of this node.
+ * <p>
+ * A user can hold several connections, typically one per browser tab. Events are queued per
+ * connection and sent from a dedicated executor, so neither the Kafka consumer thread nor the other
+ * clients ever wait on a slow client: once its send queue is full, the connection is dropped and the
+ * browser reconnects.
+ * <p>
+ * A client which stops reading altogether blocks the write in progress, and the send thread with it. The
+ * server fails such writes after {@code application.sse.send-timeout}, which drops the connection and frees
+ * the thread: a few stalled clients delay the other ones by that much at most. Emitters are completed on
+ * threads of their own, as completing one waits for its write in progress.
+ * <p>
+ * Heartbeat comments are sent periodically, so that dead connections fail and idle ones are not
+ * cut by proxies. Connections which could not be written to for a while, time out or fail are
+ * evicted, and the number of connections is capped per user and per node.
+ * <p>
+ * Connections are indexed by user and by group, so that targeted events only touch the connections
+ * they are for.
+ * <p>
+ * Every published event gets an id and is kept in a bounded replay buffer, so that a client reconnecting
+ * with a {@code Last-Event-ID} receives the events it missed. Ids are only meaningful to the node which
+ * issued them: when the missed events are not available anymore, or were sent by another node or a
+ * previous run, the client is sent a {@value SseEvent#RESYNC} event and must reload its data.
+ */
+@Component
+public class SseEmitterRegistry implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SseEmitterRegistry.class);
+
+    private static final SseEvent HEARTBEAT = SseEvent.comment("heartbeat");
+
+    private final Map<String, Set<SseConnection>> connectionsByLogin = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<SseConnection>> connectionsByGroup = new ConcurrentHashMap<>();
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    private final String nodeId = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final SseReplayBuffer replayBuffer;
+
+    /**
+     * Guards the replay buffer, so that a reconnecting client gets each event exactly once, either replayed or live.
+     */
+    private final Lock publishLock = new ReentrantLock();
+
+    private final int sendQueueCapacity;
+
+    private final long emitterTimeoutMillis;
+
+    private final long idleTimeoutNanos;
+
+    private final int maxConnectionsPerUser;
+
+    private final int maxConnectionsPerNode;
+
+    private final ThreadPoolTaskExecutor sendExecutor;
+
+    private final SimpleAsyncTaskExecutor closeExecutor = new SimpleAsyncTaskExecutor("sse-close-");
+
+    private final Counter slowConsumerDrops;
+
+    private final Counter idleDrops;
+
+    private final Counter userLimitDrops;
+
+    private final Counter timeouts;
+
+    private final Counter errors;
+
+    private final Counter nodeLimitRejections;
+
+    private final Counter replayedEvents;
+
+    private final Counter resyncs;
+
+    public SseEmitterRegistry(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Sse sse = applicationProperties.getSse();
+        this.sendQueueCapacity = sse.getSendQueueCapacity();
+        this.emitterTimeoutMillis = sse.getEmitterTimeout().toMillis();
+        this.idleTimeoutNanos = sse.getIdleTimeout().toNanos();
+        this.maxConnectionsPerUser = sse.getMaxConnectionsPerUser();
+        this.maxConnectionsPerNode = sse.getMaxConnectionsPerNode();
+        this.replayBuffer = new SseReplayBuffer(sse.getReplayBufferSize());
+        this.sendExecutor = new ThreadPoolTaskExecutor();
+        this.sendExecutor.setCorePoolSize(sse.getSendPoolSize());
+        this.sendExecutor.setMaxPoolSize(sse.getSendPoolSize());
+        this.sendExecutor.setThreadNamePrefix("sse-send-");
+        this.sendExecutor.initialize();
+
+        Gauge.builder("sse.connections", connectionCount, AtomicInteger::get)
+            .description("Number of open server-sent events connections")
+            .register(meterRegistry);
+        Gauge.builder("sse.send.queue.depth", this, SseEmitterRegistry::getQueuedEventCount)
+            .description("Number of events waiting in the send queues of all connections")
+            .register(meterRegistry);
+        this.slowConsumerDrops = droppedCounter(meterRegistry, "slow-consumer");
+        this.idleDrops = droppedCounter(meterRegistry, "idle");
+        this.userLimitDrops = droppedCounter(meterRegistry, "user-limit");
+        this.timeouts = droppedCounter(meterRegistry, "timeout");
+        this.errors = droppedCounter(meterRegistry, "error");
+        this.nodeLimitRejections = Counter.builder("sse.connections.rejected")
+            .description("Number of connections refused because the node connection limit was reached")
+            .tag("reason", "node-limit")
+            .register(meterRegistry);
+        this.replayedEvents = Counter.builder("sse.replay.events")
+            .description("Number of missed events replayed to reconnecting clients")
+            .register(meterRegistry);
+        this.resyncs = Counter.builder("sse.replay.resyncs")
+            .description("Number of reconnecting clients asked to reload, as the events they missed were not available")
+            .register(meterRegistry);
+    }
+
+    private static Counter droppedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("sse.connections.dropped")
+            .description("Number of connections closed by the server before the client went away")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a new connection for a user, in addition to the ones it may already hold.
+     * <p>
+     * Beyond the per-user limit, the oldest connections of the user are closed.
+     *
+     * @param login the login of the user.
+     * @param groups the groups of the user, usually its authorities.
+     * @return the emitter of the new connection.
+     * @throws SseConnectionLimitException if the node connection limit is reached.
+     */
+    public SseEmitter register(String login, Collection<String> groups) {
+        return register(login, groups, null);
+    }
+
+    /**
+     * Open a new connection for a user, replaying the events it missed since a previous connection.
+     *
+     * @param login the login of the user.
+     * @param groups the groups of the user, usually its authorities.
+     * @param lastEventId the id of the last event received by the client, if any.
+     * @return the emitter of the new connection.
+     * @throws SseConnectionLimitException if the node connection limit is reached.
+     */
+    public SseEmitter register(String login, Collection<String> groups, String lastEventId) {
+        LOG.debug("Registering sse client for {} in groups {}", login, groups);
+        if (connectionCount.incrementAndGet() > maxConnectionsPerNode) {
+            connectionCount.decrementAndGet();
+            nodeLimitRejections.increment();
+            throw new SseConnectionLimitException(maxConnectionsPerNode);
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        SseConnection connection = new SseConnection(login, Set.copyOf(groups), emitter, sendQueueCapacity);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> {
+            timeouts.increment();
+            remove(connection);
+            emitter.complete();
+        });
+        emitter.onError(e -> {
+            LOG.debug("Sse client {} failed: {}", login, e.getMessage());
+            errors.increment();
+            remove(connection);
+        });
+        publishLock.lock();
+        try {
+            if (lastEventId != null && !lastEventId.isEmpty()) {
+                replay(connection, lastEventId);
+            }
+            index(connectionsByLogin, login, connection);
+            connection.getGroups().forEach(group -> index(connectionsByGroup, group, connection));
+        } finally {
+            publishLock.unlock();
+        }
+        enforceUserLimit(login);
+        return emitter;
+    }
+
+    private void replay(SseConnection connection, String lastEventId) {
+        Optional<List<SseEvent>> missed = parseSequence(lastEventId)
+            .flatMap(replayBuffer::after)
+            .map(entries ->
+                entries.stream().filter(entry -> connection.isTargetOf(entry.message())).map(SseReplayBuffer.Entry::event).toList()
+            )
+            .filter(events -> events.size() < sendQueueCapacity);
+        if (missed.isPresent()) {
+            LOG.debug("Replaying {} sse events to {} after {}", missed.get().size(), connection.getLogin(), lastEventId);
+            missed.get().forEach(connection::offer);
+            replayedEvents.increment(missed.get().size());
+        } else {
+            LOG.debug("Cannot replay sse events to {} after {}, asking it to resync", connection.getLogin(), lastEventId);
+            connection.offer(SseEvent.resync(eventId(replayBuffer.getLastSequence())));
+            resyncs.increment();
+        }
+        if (connection.hasQueuedEvents()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return nodeId + "-" + sequence;
+    }
+
+    private Optional<Long> parseSequence(String eventId) {
+        String prefix = nodeId + "-";
+        if (eventId.startsWith(prefix)) {
+            try {
+                return Optional.of(Long.parseLong(eventId.substring(prefix.length())));
+            } catch (NumberFormatException e) {
+                LOG.debug("Invalid sse event id {}", eventId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void enforceUserLimit(String login) {
+        Set<SseConnection> connections = connectionsByLogin.getOrDefault(login, Set.of());
+        int excess = connections.size() - maxConnectionsPerUser;
+        if (excess > 0) {
+            connections
+                .stream()
+                .sorted(Comparator.comparingLong(SseConnection::getOpenedAt))
+                .limit(excess)
+                .toList()
+                .forEach(connection -> {
+                    LOG.debug("Closing oldest sse client of {}, the user holds too many connections", login);
+                    userLimitDrops.increment();
+                    close(connection);
+                });
+        }
+    }
+
+    /**
+     * Close all the connections of a user.
+     *
+     * @param login the login of the user.
+     */
+    public void unregister(String login) {
+        LOG.debug("Unregistering sse emitters for: {}", login);
+        for (SseConnection connection : connectionsByLogin.getOrDefault(login, Set.of())) {
+            remove(connection);
+            connection.getEmitter().complete();
+        }
+    }
+
+    /**
+     * Queue a message for the open connections it targets, and keep it for replay.
+     *
+     * @param message the message to send.
+     */
+    public void publish(SseMessage message) {
+        publishLock.lock();
+        try {
+            long sequence = replayBuffer.getLastSequence() + 1;
+            SseEvent event = SseEvent.data(message.data()).withId(eventId(sequence));
+            replayBuffer.add(new SseReplayBuffer.Entry(sequence, message, event));
+            send(targetsOf(message), event);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    private Collection<SseConnection> targetsOf(SseMessage message) {
+        if (message.login() != null) {
+            return connectionsByLogin.getOrDefault(message.login(), Set.of());
+        }
+        if (message.group() != null) {
+            return connectionsByGroup.getOrDefault(message.group(), Set.of());
+        }
+        return connectionsByLogin.values().stream().flatMap(Collection::stream).toList();
+    }
+
+    /**
+     * Evict the connections which could not be written to for too long, and queue a heartbeat for the
+     * other idle ones.
+     * <p>
+     * A dead client is only noticed when writing to it, so the heartbeat is what makes it fail.
+     */
+    @Scheduled(
+        initialDelayString = "${application.sse.heartbeat-interval:15s}",
+        fixedDelayString = "${application.sse.heartbeat-interval:15s}"
+    )
+    public void heartbeat() {
+        connectionsByLogin
+            .values()
+            .stream()
+            .flatMap(Collection::stream)
+            .toList()
+            .forEach(connection -> {
+                if (connection.getIdleNanos() >= idleTimeoutNanos) {
+                    LOG.debug("Evicting sse client {}, it has been idle for too long", connection.getLogin());
+                    idleDrops.increment();
+                    close(connection);
+                } else if (!connection.hasQueuedEvents()) {
+                    send(Set.of(connection), HEARTBEAT);
+                }
+            });
+    }
+
+    private void send(Collection<SseConnection> connections, SseEvent event) {
+        for (SseConnection connection : connections) {
+            if (connection.offer(event)) {
+                scheduleDrain(connection);
+            } else {
+                LOG.warn("Dropping sse client {}, its send queue is full", connection.getLogin());
+                slowConsumerDrops.increment();
+                close(connection);
+            }
+        }
+    }
+
+    private void scheduleDrain(SseConnection connection) {
+        if (connection.startDraining()) {
+            try {
+                sendExecutor.execute(() -> drain(connection));
+            } catch (TaskRejectedException e) {
+                connection.stopDraining();
+                LOG.warn("Could not schedule sse send for {}", connection.getLogin(), e);
+            }
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        try {
+            SseEvent event;
+            while (!connection.isClosed() && (event = connection.poll()) != null) {
+                connection.getEmitter().send(event.toBuilder());
+                connection.markActive();
+            }
+        } catch (IOException | IllegalStateException e) {
+            LOG.debug("Error sending sse event to {}: {}", connection.getLogin(), e.getMessage());
+            remove(connection);
+        } finally {
+            connection.stopDraining();
+        }
+        if (!connection.isClosed() && connection.hasQueuedEvents()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * Remove a connection and complete its emitter on a thread of its own, as completing waits for any send in
+     * progress, which lasts until the send timeout when the client is stalled.
+     */
+    private void close(SseConnection connection) {
+        remove(connection);
+        closeExecutor.execute(connection.getEmitter()::complete);
+    }
+
+    private void remove(SseConnection connection) {
+        if (connection.markClosed()) {
+            unindex(connectionsByLogin, connection.getLogin(), connection);
+            connection.getGroups().forEach(group -> unindex(connectionsByGroup, group, connection));
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private static void index(Map<String, Set<SseConnection>> index, String key, SseConnection connection) {
+        index.compute(key, (k, connections) -> {
+            Set<SseConnection> result = connections == null ? ConcurrentHashMap.newKeySet() : connections;
+            result.add(connection);
+            return result;
+        });
+    }
+
+    private static void unindex(Map<String, Set<SseConnection>> index, String key, SseConnection connection) {
+        index.computeIfPresent(key, (k, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+
+    private int getQueuedEventCount() {
+        return connectionsByLogin.values().stream().flatMap(Collection::stream).mapToInt(SseConnection::getQueueDepth).sum();
+    }
+
+    @Override
+    public void destroy() {
+        connectionsByLogin.values().stream().flatMap(Collection::stream).forEach(connection -> connection.getEmitter().complete());
+        sendExecutor.shutdown();
+        closeExecutor.close();
+    }
+}
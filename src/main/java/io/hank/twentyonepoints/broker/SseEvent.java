@@ -0,0 +1,55 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * An immutable server-sent event, queued once and sent to any number of connections.
+ * <p>
+ * {@link SseEmitter.SseEventBuilder} is stateful and can only be built once, so a fresh builder is created per send.
+ */
+record SseEvent(String id, String name, String data, String comment) {
+    /**
+     * Name of the event telling a reconnecting client that the events it missed are no longer available,
+     * so it must reload its data.
+     */
+    static final String RESYNC = "resync";
+
+    static SseEvent data(String data) {
+        return new SseEvent(null, null, data, null);
+    }
+
+    /**
+     * A comment line, ignored by browsers but enough to keep the connection busy.
+     */
+    static SseEvent comment(String comment) {
+        return new SseEvent(null, null, null, comment);
+    }
+
+    static SseEvent resync(String id) {
+        return new SseEvent(id, RESYNC, RESYNC, null);
+    }
+
+    SseEvent withId(String id) {
+        return new SseEvent(id, name, data, comment);
+    }
+
+    SseEmitter.SseEventBuilder toBuilder() {
+        SseEmitter.SseEventBuilder builder = event();
+        if (comment != null) {
+            builder.comment(comment);
+        }
+        if (id != null) {
+            builder.id(id);
+        }
+        if (name != null) {
+            builder.name(name);
+        }
+        if (data != null) {
+            builder.data(data, MediaType.TEXT_PLAIN);
+        }
+        return builder;
+    }
+}
@@ -0,0 +1,31 @@
+package io.hank.twentyonepoints.broker;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Envelope of the messages read from {@code sse-topic}, telling which connections their data is for.
+ * <p>
+ * A message targets either the connections of one user ({@code login}), the connections of the users
+ * holding an authority ({@code group}), or every connection ({@code broadcast}). Plain text messages
+ * which are not an envelope are broadcast, as they always were.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SseMessage(String login, String group, Boolean broadcast, String data) {
+    public static SseMessage toUser(String login, String data) {
+        return new SseMessage(login, null, null, data);
+    }
+
+    public static SseMessage toGroup(String group, String data) {
+        return new SseMessage(null, group, null, data);
+    }
+
+    public static SseMessage toAll(String data) {
+        return new SseMessage(null, null, true, data);
+    }
+
+    boolean hasTarget() {
+        return login != null || group != null || Boolean.TRUE.equals(broadcast);
+    }
+}
@@ -0,0 +1,56 @@
+package io.hank.twentyonepoints.broker;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded buffer of the most recent events of this node, replayed to the clients reconnecting with a
+ * {@code Last-Event-ID}.
+ * <p>
+ * This class is not thread-safe, its owner must guard it.
+ */
+final class SseReplayBuffer {
+
+    record Entry(long sequence, SseMessage message, SseEvent event) {}
+
+    private final int capacity;
+
+    private final Deque<Entry> entries;
+
+    private long lastSequence;
+
+    SseReplayBuffer(int capacity) {
+        this.capacity = capacity;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    void add(Entry entry) {
+        if (capacity > 0) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+        lastSequence = entry.sequence();
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Get the events following a sequence number.
+     *
+     * @param sequence the sequence number of the last event received by the client.
+     * @return the events following it, or empty if some of them were already evicted.
+     */
+    Optional<List<Entry>> after(long sequence) {
+        long firstAvailable = entries.isEmpty() ? lastSequence + 1 : entries.getFirst().sequence();
+        if (sequence < firstAvailable - 1 || sequence > lastSequence) {
+            return Optional.empty();
+        }
+        return Optional.of(entries.stream().filter(entry -> entry.sequence() > sequence).toList());
+    }
+}
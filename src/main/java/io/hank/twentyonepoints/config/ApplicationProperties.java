@@ -1,5 +1,6 @@
 package io.hank.twentyonepoints.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +14,72 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Sse sse = new Sse();
+
+    private final Kafka kafka = new Kafka();
+
+    private final Search search = new Search();
+
+    private final Async async = new Async();
+
+    private final Jobs jobs = new Jobs();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Partitions partitions = new Partitions();
+
+    private final Retention retention = new Retention();
+
+    private final Sql sql = new Sql();
+
+    private final Dashboard dashboard = new Dashboard();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Sse getSse() {
+        return sse;
+    }
+
+    public Kafka getKafka() {
+        return kafka;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public Partitions getPartitions() {
+        return partitions;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public Sql getSql() {
+        return sql;
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +94,465 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Sse {
+
+        private int sendQueueCapacity = 256;
+
+        private int sendPoolSize = 4;
+
+        private Duration sendTimeout = Duration.ofSeconds(30);
+
+        private Duration emitterTimeout = Duration.ofMinutes(30);
+
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        private Duration idleTimeout = Duration.ofMinutes(1);
+
+        private int maxConnectionsPerUser = 5;
+
+        private int maxConnectionsPerNode = 10000;
+
+        private int replayBufferSize = 1000;
+
+        public int getSendQueueCapacity() {
+            return sendQueueCapacity;
+        }
+
+        public void setSendQueueCapacity(int sendQueueCapacity) {
+            this.sendQueueCapacity = sendQueueCapacity;
+        }
+
+        public int getSendPoolSize() {
+            return sendPoolSize;
+        }
+
+        public void setSendPoolSize(int sendPoolSize) {
+            this.sendPoolSize = sendPoolSize;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+
+        public Duration getEmitterTimeout() {
+            return emitterTimeout;
+        }
+
+        public void setEmitterTimeout(Duration emitterTimeout) {
+            this.emitterTimeout = emitterTimeout;
+        }
+
+        public Duration getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public int getMaxConnectionsPerUser() {
+            return maxConnectionsPerUser;
+        }
+
+        public void setMaxConnectionsPerUser(int maxConnectionsPerUser) {
+            this.maxConnectionsPerUser = maxConnectionsPerUser;
+        }
+
+        public int getMaxConnectionsPerNode() {
+            return maxConnectionsPerNode;
+        }
+
+        public void setMaxConnectionsPerNode(int maxConnectionsPerNode) {
+            this.maxConnectionsPerNode = maxConnectionsPerNode;
+        }
+
+        public int getReplayBufferSize() {
+            return replayBufferSize;
+        }
+
+        public void setReplayBufferSize(int replayBufferSize) {
+            this.replayBufferSize = replayBufferSize;
+        }
+    }
+
+    public static class Kafka {
+
+        private String publishTopic = "binding-out-0";
+
+        private int maxBatchSize = 1000;
+
+        private int maxInFlightMessages = 10000;
+
+        public String getPublishTopic() {
+            return publishTopic;
+        }
+
+        public void setPublishTopic(String publishTopic) {
+            this.publishTopic = publishTopic;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getMaxInFlightMessages() {
+            return maxInFlightMessages;
+        }
+
+        public void setMaxInFlightMessages(int maxInFlightMessages) {
+            this.maxInFlightMessages = maxInFlightMessages;
+        }
+    }
+
+    public static class Search {
+
+        private IndexingMode indexingMode = IndexingMode.INLINE;
+
+        public IndexingMode getIndexingMode() {
+            return indexingMode;
+        }
+
+        public void setIndexingMode(IndexingMode indexingMode) {
+            this.indexingMode = indexingMode;
+        }
+
+        public boolean isInlineIndexing() {
+            return indexingMode == IndexingMode.INLINE;
+        }
+    }
+
+    /**
+     * How entity changes reach the search index.
+     */
+    public enum IndexingMode {
+        /**
+         * Entities are indexed by the REST resources, as they are changed.
+         */
+        INLINE,
+        /**
+         * Entities are indexed in bulk by a consumer of the entity change events.
+         */
+        KAFKA,
+    }
+
+    public static class Async {
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.ABORT;
+
+        private int bufferCapacity = 10000;
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getBufferCapacity() {
+            return bufferCapacity;
+        }
+
+        public void setBufferCapacity(int bufferCapacity) {
+            this.bufferCapacity = bufferCapacity;
+        }
+    }
+
+    public static class Jobs {
+
+        private int historySize = 100;
+
+        private Duration lockAtLeastFor = Duration.ofMinutes(1);
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public Duration getLockAtLeastFor() {
+            return lockAtLeastFor;
+        }
+
+        public void setLockAtLeastFor(Duration lockAtLeastFor) {
+            this.lockAtLeastFor = lockAtLeastFor;
+        }
+    }
+
+    public static class Datasource {
+
+        private final Replica replica = new Replica();
+
+        private final Pool pool = new Pool();
+
+        public Replica getReplica() {
+            return replica;
+        }
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            private int maximumPoolSize = 10;
+
+            private Duration maxLag = Duration.ofSeconds(5);
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public Duration getMaxLag() {
+                return maxLag;
+            }
+
+            public void setMaxLag(Duration maxLag) {
+                this.maxLag = maxLag;
+            }
+        }
+
+        public static class Pool {
+
+            private int pendingThreshold = 5;
+
+            public int getPendingThreshold() {
+                return pendingThreshold;
+            }
+
+            public void setPendingThreshold(int pendingThreshold) {
+                this.pendingThreshold = pendingThreshold;
+            }
+        }
+    }
+
+    public static class Partitions {
+
+        private String cron = "0 30 2 * * *";
+
+        private int monthsAhead = 3;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+    }
+
+    public static class Retention {
+
+        private boolean enabled = false;
+
+        private int years = 5;
+
+        private String cron = "0 0 3 * * *";
+
+        private int chunkSize = 500;
+
+        private int maxChunksPerRun = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getYears() {
+            return years;
+        }
+
+        public void setYears(int years) {
+            this.years = years;
+        }
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxChunksPerRun() {
+            return maxChunksPerRun;
+        }
+
+        public void setMaxChunksPerRun(int maxChunksPerRun) {
+            this.maxChunksPerRun = maxChunksPerRun;
+        }
+    }
+
+    public static class Sql {
+
+        private boolean enabled = true;
+
+        private Duration slowQueryThreshold = Duration.ofMillis(500);
+
+        private int maxStatementShapes = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+
+        public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+
+        public int getMaxStatementShapes() {
+            return maxStatementShapes;
+        }
+
+        public void setMaxStatementShapes(int maxStatementShapes) {
+            this.maxStatementShapes = maxStatementShapes;
+        }
+    }
+
+    public static class Dashboard {
+
+        private int poolSize = 8;
+
+        private int queueCapacity = 64;
+
+        private Duration queryTimeout = Duration.ofSeconds(2);
+
+        private Duration preferencesTimeToLive = Duration.ofMinutes(5);
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getQueryTimeout() {
+            return queryTimeout;
+        }
+
+        public void setQueryTimeout(Duration queryTimeout) {
+            this.queryTimeout = queryTimeout;
+        }
+
+        public Duration getPreferencesTimeToLive() {
+            return preferencesTimeToLive;
+        }
+
+        public void setPreferencesTimeToLive(Duration preferencesTimeToLive) {
+            this.preferencesTimeToLive = preferencesTimeToLive;
+        }
+    }
+
+    /**
+     * What happens to a task submitted to an executor whose queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The task is rejected, and its submitter gets an exception.
+         */
+        ABORT,
+        /**
+         * The task runs right away on the thread submitting it, which slows submitters down.
+         */
+        CALLER_RUNS,
+        /**
+         * The oldest queued task is dropped to make room for the task, and its future cancelled.
+         */
+        DROP_OLDEST,
+        /**
+         * The task is set aside in a bounded in-memory buffer, and queued again once the queue has room. Buffered tasks
+         * are lost if the node stops.
+         */
+        BUFFER,
+    }
+
     // jhipster-needle-application-properties-property-class
 }
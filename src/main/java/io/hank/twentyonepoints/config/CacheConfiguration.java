@@ -7,6 +7,7 @@ import javax.cache.expiry.CreatedExpiryPolicy;
 import javax.cache.expiry.Duration;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
 import org.redisson.config.ClusterServersConfig;
 import org.redisson.config.Config;
 import org.redisson.config.SingleServerConfig;
@@ -30,10 +31,12 @@ public class CacheConfiguration {
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
 
-    @Bean
-    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(JHipsterProperties jHipsterProperties) {
-        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
-
+    /**
+     * The Redisson client backing the caches, also available for other uses of Redis such as pub/sub.
+     * It is shut down by the JCache manager it backs.
+     */
+    @Bean(destroyMethod = "")
+    public RedissonClient redissonClient(JHipsterProperties jHipsterProperties) {
         URI redisUri = URI.create(jHipsterProperties.getCache().getRedis().getServer()[0]);
 
         Config config = new Config();
@@ -62,11 +65,20 @@ public class CacheConfiguration {
                 singleServerConfig.setPassword(redisUri.getUserInfo().substring(redisUri.getUserInfo().indexOf(':') + 1));
             }
         }
+        return Redisson.create(config);
+    }
+
+    @Bean
+    public javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration(
+        JHipsterProperties jHipsterProperties,
+        RedissonClient redissonClient
+    ) {
+        MutableConfiguration<Object, Object> jcacheConfig = new MutableConfiguration<>();
         jcacheConfig.setStatisticsEnabled(true);
         jcacheConfig.setExpiryPolicyFactory(
             CreatedExpiryPolicy.factoryOf(new Duration(TimeUnit.SECONDS, jHipsterProperties.getCache().getRedis().getExpiration()))
         );
-        return RedissonConfiguration.fromInstance(Redisson.create(config), jcacheConfig);
+        return RedissonConfiguration.fromInstance(redissonClient, jcacheConfig);
     }
 
     @Bean
@@ -75,7 +87,23 @@ public class CacheConfiguration {
     }
 
     @Bean
-    public JCacheManagerCustomizer cacheManagerCustomizer(javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration) {
+    public JCacheManagerCustomizer cacheManagerCustomizer(
+        javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration,
+        RedissonClient redissonClient,
+        ApplicationProperties applicationProperties
+    ) {
+        // The preferences are cached for a short time: a read racing with a change can cache the previous ones
+        MutableConfiguration<Object, Object> preferencesConfig = new MutableConfiguration<>();
+        preferencesConfig.setStatisticsEnabled(true);
+        preferencesConfig.setExpiryPolicyFactory(
+            CreatedExpiryPolicy.factoryOf(
+                new Duration(TimeUnit.MILLISECONDS, applicationProperties.getDashboard().getPreferencesTimeToLive().toMillis())
+            )
+        );
+        javax.cache.configuration.Configuration<Object, Object> preferencesConfiguration = RedissonConfiguration.fromInstance(
+            redissonClient,
+            preferencesConfig
+        );
         return cm -> {
             createCache(cm, io.hank.twentyonepoints.repository.UserRepository.USERS_BY_LOGIN_CACHE, jcacheConfiguration);
             createCache(cm, io.hank.twentyonepoints.repository.UserRepository.USERS_BY_EMAIL_CACHE, jcacheConfiguration);
@@ -86,6 +114,8 @@ public class CacheConfiguration {
             createCache(cm, io.hank.twentyonepoints.domain.Weight.class.getName(), jcacheConfiguration);
             createCache(cm, io.hank.twentyonepoints.domain.BloodPressure.class.getName(), jcacheConfiguration);
             createCache(cm, io.hank.twentyonepoints.domain.Preferences.class.getName(), jcacheConfiguration);
+            createCache(cm, io.hank.twentyonepoints.repository.PreferencesRepository.PREFERENCES_BY_LOGIN_CACHE, preferencesConfiguration);
+            createCache(cm, io.hank.twentyonepoints.service.ChangeWatermarkService.CHANGE_WATERMARKS_CACHE, jcacheConfiguration);
             // jhipster-needle-redis-add-entry
         };
     }
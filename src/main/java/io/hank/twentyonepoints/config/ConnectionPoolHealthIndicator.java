@@ -0,0 +1,86 @@
+package io.hank.twentyonepoints.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the connection pools of the application as {@code connectionPool}, part of the readiness group, and takes the
+ * instance out of service while one of them is saturated.
+ * <p>
+ * A pool is saturated when all its connections are in use and more than
+ * {@code application.datasource.pool.pending-threshold} threads wait for one: requests then queue until they time out,
+ * and sending fewer of them to the instance lets the pool drain. The pools are the Hikari data sources behind the data
+ * source beans, so the primary and the replica pools are both reported when a read replica is configured.
+ * <p>
+ * The pool metrics themselves are the {@code hikaricp.connections.*} meters.
+ */
+@Component
+public class ConnectionPoolHealthIndicator implements HealthIndicator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPoolHealthIndicator.class);
+
+    private final ObjectProvider<DataSource> dataSources;
+
+    private final int pendingThreshold;
+
+    public ConnectionPoolHealthIndicator(ObjectProvider<DataSource> dataSources, ApplicationProperties applicationProperties) {
+        this.dataSources = dataSources;
+        this.pendingThreshold = applicationProperties.getDatasource().getPool().getPendingThreshold();
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        for (HikariDataSource pool : pools()) {
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+            if (poolBean == null) {
+                // The pool starts with its first connection
+                continue;
+            }
+            PoolState state = new PoolState(
+                poolBean.getActiveConnections(),
+                poolBean.getIdleConnections(),
+                poolBean.getThreadsAwaitingConnection(),
+                pool.getMaximumPoolSize()
+            );
+            builder.withDetail(pool.getPoolName(), state);
+            if (state.isSaturated(pendingThreshold)) {
+                LOG.warn("Connection pool {} is saturated: {}", pool.getPoolName(), state);
+                builder.status(Status.OUT_OF_SERVICE);
+            }
+        }
+        return builder.build();
+    }
+
+    private Set<HikariDataSource> pools() {
+        Set<HikariDataSource> pools = new LinkedHashSet<>();
+        dataSources
+            .orderedStream()
+            .map(dataSource -> DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class))
+            .filter(Objects::nonNull)
+            .forEach(pools::add);
+        return pools;
+    }
+
+    /**
+     * The connections of a pool, and the threads waiting for one.
+     */
+    public record PoolState(int active, int idle, int pending, int max) {
+        boolean isSaturated(int pendingThreshold) {
+            return active >= max && pending > pendingThreshold;
+        }
+    }
+}
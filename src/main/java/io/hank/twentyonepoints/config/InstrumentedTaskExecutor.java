@@ -0,0 +1,269 @@
+package io.hank.twentyonepoints.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * A {@link ThreadPoolTaskExecutor} exporting its activity to Micrometer, and handling a full queue with a configurable
+ * {@link ApplicationProperties.OverflowPolicy}.
+ * <p>
+ * Besides the pool gauges of {@link ExecutorServiceMetrics} ({@code executor.active}, {@code executor.queued}...), it
+ * times how long tasks waited in the queue in {@code executor.idle} and how long they ran in {@code executor}, like
+ * Micrometer's own timed executors, and counts the tasks which overflowed the queue in {@code executor.overflow}, by
+ * what happened to them.
+ * <p>
+ * With {@link ApplicationProperties.OverflowPolicy#BUFFER}, tasks overflowing the queue are kept in a bounded in-memory
+ * buffer, and moved back to the queue each time a task completes. No task is ever dropped to make room for another one,
+ * so whoever waits on a task sees it run or fail. The buffer is not persistent: the tasks it holds are lost if the node
+ * stops.
+ * <p>
+ * With {@link ApplicationProperties.OverflowPolicy#DROP_OLDEST}, the task which waited the longest in the queue is
+ * removed to make room for the new one, and its {@link Future} is cancelled, so whoever waits on it gets a
+ * {@link java.util.concurrent.CancellationException} instead of waiting forever. The {@link CompletableFuture}s of
+ * {@link #submitCompletable(Callable)}, which {@code @Async} methods return, are cancelled too. Tasks passed to
+ * {@link #execute(Runnable)} have no future, and are dropped silently apart from the metric.
+ */
+public class InstrumentedTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InstrumentedTaskExecutor.class);
+
+    private final String name;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties.OverflowPolicy overflowPolicy;
+
+    private final BlockingDeque<Runnable> buffer;
+
+    public InstrumentedTaskExecutor(
+        String name,
+        MeterRegistry meterRegistry,
+        ApplicationProperties.OverflowPolicy overflowPolicy,
+        int bufferCapacity
+    ) {
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+        this.overflowPolicy = overflowPolicy;
+        this.buffer = new LinkedBlockingDeque<>(bufferCapacity);
+        TaskDecorator decorator = timed(name, meterRegistry).andThen(this::drainingBuffer);
+        setTaskDecorator(task -> new QueuedTask(task, decorator.decorate(task)));
+    }
+
+    /**
+     * A decorator timing how long tasks wait before running in {@code executor.idle}, and how long they run in
+     * {@code executor}. Executors which are not pools use it on its own.
+     *
+     * @param name the name of the executor, as the {@code name} tag of the timers.
+     * @param meterRegistry the registry of the timers.
+     * @return the decorator.
+     */
+    static TimingTaskDecorator timed(String name, MeterRegistry meterRegistry) {
+        return new TimingTaskDecorator(
+            Timer.builder("executor.idle").tag("name", name).description("Time tasks waited before running").register(meterRegistry),
+            Timer.builder("executor").tag("name", name).description("Time tasks ran").register(meterRegistry)
+        );
+    }
+
+    @Override
+    protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+        ExecutorService executor = super.initializeExecutor(threadFactory, this::overflow);
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        Gauge.builder("executor.buffer", buffer, BlockingDeque::size)
+            .tag("name", name)
+            .description("Tasks which overflowed the queue, waiting in memory to be queued again")
+            .register(meterRegistry);
+        return executor;
+    }
+
+    @Override
+    public <T> CompletableFuture<T> submitCompletable(Callable<T> task) {
+        // Unlike CompletableFuture.supplyAsync, completes the returned future when the task is cancelled
+        CompletableFutureTask<T> future = new CompletableFutureTask<>(task);
+        execute(future);
+        return future.completable;
+    }
+
+    @Override
+    public CompletableFuture<Void> submitCompletable(Runnable task) {
+        return submitCompletable(Executors.callable(task, (Void) null));
+    }
+
+    @Override
+    public void shutdown() {
+        if (!buffer.isEmpty()) {
+            LOG.warn("Shutting down {} with {} tasks left in its buffer, which will not run", name, buffer.size());
+        }
+        super.shutdown();
+    }
+
+    private void overflow(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw reject();
+        }
+        switch (overflowPolicy) {
+            case CALLER_RUNS -> {
+                count("caller-ran");
+                task.run();
+            }
+            case DROP_OLDEST -> {
+                Runnable oldest = executor.getQueue().poll();
+                if (oldest != null) {
+                    drop(oldest);
+                }
+                if (!executor.getQueue().offer(task)) {
+                    throw reject();
+                }
+            }
+            case BUFFER -> {
+                if (!buffer.offer(task)) {
+                    throw reject();
+                }
+                count("buffered");
+            }
+            default -> throw reject();
+        }
+    }
+
+    private RejectedExecutionException reject() {
+        count("rejected");
+        return new RejectedExecutionException("Executor " + name + " is full");
+    }
+
+    private void drop(Runnable queued) {
+        count("dropped");
+        if (queued instanceof QueuedTask queuedTask && queuedTask.task() instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
+    private void count(String outcome) {
+        Counter.builder("executor.overflow")
+            .tag("name", name)
+            .tag("outcome", outcome)
+            .description("Tasks submitted while the queue was full")
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private Runnable drainingBuffer(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                drainBuffer();
+            }
+        };
+    }
+
+    private void drainBuffer() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        ThreadPoolExecutor executor = getThreadPoolExecutor();
+        Runnable task;
+        while (!executor.isShutdown() && (task = buffer.poll()) != null) {
+            if (!executor.getQueue().offer(task)) {
+                if (!buffer.offerFirst(task)) {
+                    // The buffer filled up meanwhile: the task runs here rather than being lost
+                    count("caller-ran");
+                    task.run();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * A decorated task in the queue, keeping the task it was submitted as to cancel its future if it is dropped.
+     */
+    private record QueuedTask(Runnable task, Runnable decorated) implements Runnable {
+        @Override
+        public void run() {
+            decorated.run();
+        }
+    }
+
+    /**
+     * A task completing a {@link CompletableFuture} with its outcome, including its cancellation.
+     */
+    private static final class CompletableFutureTask<T> extends FutureTask<T> {
+
+        private final CompletableFuture<T> completable = new CompletableFuture<>();
+
+        private CompletableFutureTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        @Override
+        protected void done() {
+            if (isCancelled()) {
+                completable.cancel(false);
+                return;
+            }
+            try {
+                completable.complete(get());
+            } catch (ExecutionException e) {
+                completable.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                completable.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Decorator timing the wait and run time of tasks.
+     */
+    static final class TimingTaskDecorator implements TaskDecorator {
+
+        private final Timer waitTimer;
+
+        private final Timer runTimer;
+
+        private TimingTaskDecorator(Timer waitTimer, Timer runTimer) {
+            this.waitTimer = waitTimer;
+            this.runTimer = runTimer;
+        }
+
+        @Override
+        public Runnable decorate(Runnable task) {
+            long submitted = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                runTimer.record(task);
+            };
+        }
+
+        /**
+         * Apply another decoration to the tasks this decorator times.
+         *
+         * @param decorator the other decoration, applied around the timed task.
+         * @return the combined decorator.
+         */
+        TaskDecorator andThen(TaskDecorator decorator) {
+            return task -> decorator.decorate(decorate(task));
+        }
+    }
+}
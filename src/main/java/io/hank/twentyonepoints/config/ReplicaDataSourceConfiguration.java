@@ -0,0 +1,99 @@
+package io.hank.twentyonepoints.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Sends the read-only transactions to a read replica of the database, when {@code application.datasource.replica.url}
+ * is set.
+ * <p>
+ * The data source of the application hands out lazy connections, which only take a connection from the primary or the
+ * replica pool when their first statement runs, once the transaction has marked them read-only or not. Spring also
+ * makes the Hibernate sessions of read-only transactions read-only, so the entities they load are neither dirty checked
+ * nor flushed. Liquibase always runs on the primary.
+ * <p>
+ * A replica lags behind the primary. The endpoints answering conditional requests know when their data last changed,
+ * from its change watermark: when that is more recent than {@code application.datasource.replica.max-lag}, their
+ * read-only transaction is pinned to the primary by {@link ChangeWatermarkService#routeReads}, and runs there in a
+ * read-only session. Other work which must see what was just committed has to run in a read-write transaction.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "application.datasource.replica", name = "url")
+public class ReplicaDataSourceConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaDataSourceConfiguration.class);
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+        DataSourceProperties dataSourceProperties,
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Datasource.Replica replica = applicationProperties.getDatasource().getReplica();
+        DataSourceBuilder<HikariDataSource> builder = dataSourceProperties
+            .initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .url(replica.getUrl());
+        if (replica.getUsername() != null) {
+            builder.username(replica.getUsername()).password(replica.getPassword());
+        }
+        HikariDataSource replicaDataSource = builder.build();
+        replicaDataSource.setPoolName("Hikari-replica");
+        replicaDataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+        replicaDataSource.setReadOnly(true);
+        replicaDataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        replicaDataSource.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+        LOG.info("Routing read-only transactions to the database replica");
+        return replicaDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") HikariDataSource replicaDataSource
+    ) {
+        AbstractRoutingDataSource readOnlyDataSource = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return ChangeWatermarkService.isPrimaryReadRequired() ? "primary" : "replica";
+            }
+
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                connection.setReadOnly(true);
+                return connection;
+            }
+        };
+        readOnlyDataSource.setTargetDataSources(Map.<Object, Object>of("primary", primaryDataSource, "replica", replicaDataSource));
+        readOnlyDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readOnlyDataSource);
+        return dataSource;
+    }
+}
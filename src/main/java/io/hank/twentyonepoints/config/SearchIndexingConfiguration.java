@@ -0,0 +1,71 @@
+package io.hank.twentyonepoints.config;
+
+import io.hank.twentyonepoints.service.SearchIndexingService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.stream.binding.BindingsLifecycleController;
+import org.springframework.cloud.stream.config.ListenerContainerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Configuration of the search indexer, the batch consumer of the entity change events which keeps the search
+ * index up to date when {@code application.search.indexing-mode} is {@code kafka}.
+ * <p>
+ * The binding is declared with {@code auto-startup: false} and only started in that mode. A failed batch is
+ * retried with an exponential back-off for as long as it takes, so offsets are only committed once the batch
+ * has been indexed.
+ */
+@Configuration
+public class SearchIndexingConfiguration {
+
+    public static final String SEARCH_INDEXER_BINDING_NAME = "searchIndexer-in-0";
+
+    private static final String SEARCH_INDEXER_GROUP = "twenty-one-points-search-indexer";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexingConfiguration.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final BindingsLifecycleController bindingsLifecycleController;
+
+    public SearchIndexingConfiguration(
+        ApplicationProperties applicationProperties,
+        BindingsLifecycleController bindingsLifecycleController
+    ) {
+        this.applicationProperties = applicationProperties;
+        this.bindingsLifecycleController = bindingsLifecycleController;
+    }
+
+    @Bean
+    public Consumer<List<EntityChangeEvent>> searchIndexer(SearchIndexingService searchIndexingService) {
+        return searchIndexingService::apply;
+    }
+
+    @Bean
+    public ListenerContainerCustomizer<AbstractMessageListenerContainer<?, ?>> searchIndexerContainerCustomizer() {
+        return (container, destinationName, group) -> {
+            if (SEARCH_INDEXER_GROUP.equals(group)) {
+                ExponentialBackOff backOff = new ExponentialBackOff(1000, 2);
+                backOff.setMaxInterval(60000);
+                container.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSearchIndexer() {
+        if (applicationProperties.getSearch().getIndexingMode() == ApplicationProperties.IndexingMode.KAFKA) {
+            LOG.info("Starting the search indexer, entities are indexed from the entity change events");
+            bindingsLifecycleController.changeState(SEARCH_INDEXER_BINDING_NAME, BindingsLifecycleController.State.STARTED);
+        }
+    }
+}
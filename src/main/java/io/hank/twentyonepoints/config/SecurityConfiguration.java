@@ -4,6 +4,7 @@ import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.PREFERRED_USERNAME;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
+import io.hank.twentyonepoints.broker.CacheInvalidationBus;
 import io.hank.twentyonepoints.security.*;
 import io.hank.twentyonepoints.security.SecurityUtils;
 import io.hank.twentyonepoints.security.oauth2.AudienceValidator;
@@ -167,7 +168,11 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    JwtDecoder jwtDecoder(ClientRegistrationRepository clientRegistrationRepository, RestTemplateBuilder restTemplateBuilder) {
+    JwtDecoder jwtDecoder(
+        ClientRegistrationRepository clientRegistrationRepository,
+        RestTemplateBuilder restTemplateBuilder,
+        CacheInvalidationBus cacheInvalidationBus
+    ) {
         NimbusJwtDecoder jwtDecoder = JwtDecoders.fromOidcIssuerLocation(issuerUri);
 
         OAuth2TokenValidator<Jwt> audienceValidator = new AudienceValidator(jHipsterProperties.getSecurity().getOauth2().getAudience());
@@ -175,9 +180,12 @@ public class SecurityConfiguration {
         OAuth2TokenValidator<Jwt> withAudience = new DelegatingOAuth2TokenValidator<>(withIssuer, audienceValidator);
 
         jwtDecoder.setJwtValidator(withAudience);
-        jwtDecoder.setClaimSetConverter(
-            new CustomClaimConverter(clientRegistrationRepository.findByRegistrationId("oidc"), restTemplateBuilder.build())
+        CustomClaimConverter customClaimConverter = new CustomClaimConverter(
+            clientRegistrationRepository.findByRegistrationId("oidc"),
+            restTemplateBuilder.build()
         );
+        cacheInvalidationBus.subscribe(CustomClaimConverter.USERS_CACHE, customClaimConverter::evictUser);
+        jwtDecoder.setClaimSetConverter(customClaimConverter);
 
         return jwtDecoder;
     }
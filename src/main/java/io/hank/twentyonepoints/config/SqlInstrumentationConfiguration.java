@@ -0,0 +1,72 @@
+package io.hank.twentyonepoints.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Instruments the JDBC statements of the application, unless {@code application.sql.enabled} is false.
+ * <p>
+ * The {@code dataSource} bean is wrapped in a proxy reporting each statement to {@link SqlStatementMetrics}. The result
+ * sets are wrapped as well, but only their {@code next()} and {@code close()} calls are reported, to count the rows
+ * read: the other calls go straight to the driver. Only that data source is wrapped: with a read replica, it is the
+ * routing one, so the statements are measured once whichever pool runs them.
+ * <p>
+ * The statement count filter runs ahead of Spring Security, so that the statements of the security filters, such as
+ * the lookup of the user of a request, are counted with their request.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "application.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfiguration {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public SqlStatementMetrics sqlStatementMetrics(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new SqlStatementMetrics(meterRegistry, applicationProperties.getSql());
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlInstrumentingDataSourcePostProcessor(ObjectProvider<SqlStatementMetrics> sqlStatementMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlStatementMetrics metrics = sqlStatementMetrics.getObject();
+                return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(metrics)
+                    .proxyResultSet(metrics.rowCountingResultSets())
+                    .build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementCountFilter> sqlStatementCountFilter(
+        SqlStatementMetrics sqlStatementMetrics,
+        MeterRegistry meterRegistry
+    ) {
+        FilterRegistrationBean<SqlStatementCountFilter> registration = new FilterRegistrationBean<>(
+            new SqlStatementCountFilter(sqlStatementMetrics, meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Bean
+    public SqlStatementsEndpoint sqlStatementsEndpoint(SqlStatementMetrics sqlStatementMetrics) {
+        return new SqlStatementsEndpoint(sqlStatementMetrics);
+    }
+}
@@ -0,0 +1,64 @@
+package io.hank.twentyonepoints.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the JDBC statements run while serving each HTTP request in {@code http.server.requests.jdbc.statements}, and
+ * times them in {@code http.server.requests.jdbc}, tagged by {@code method} and {@code uri} like
+ * {@code http.server.requests}.
+ * <p>
+ * A request running many statements for a single endpoint usually loads an association entity by entity.
+ * <p>
+ * The count is also left in the {@link #STATEMENTS_ATTRIBUTE} request attribute, for the tests.
+ */
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_ATTRIBUTE = SqlStatementCountFilter.class.getName() + ".statements";
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlStatementCountFilter(SqlStatementMetrics sqlStatementMetrics, MeterRegistry meterRegistry) {
+        this.sqlStatementMetrics = sqlStatementMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        sqlStatementMetrics.startRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementMetrics.RequestStatements statements = sqlStatementMetrics.finishRequest();
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements.statements);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+            DistributionSummary.builder("http.server.requests.jdbc.statements")
+                .description("JDBC statements run by the HTTP requests")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.statements);
+            Timer.builder("http.server.requests.jdbc")
+                .description("Time the HTTP requests spent running JDBC statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.elapsed, TimeUnit.MILLISECONDS);
+        }
+    }
+}
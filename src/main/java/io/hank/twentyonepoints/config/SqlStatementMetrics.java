@@ -0,0 +1,277 @@
+package io.hank.twentyonepoints.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ResultSetProxyLogicFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the JDBC statements run through the data source, by statement shape: the SQL of the statement with its
+ * literals and parameters replaced by {@code ?}, and its {@code in} lists collapsed.
+ * <p>
+ * Each shape gets an id, the start of the SHA-256 digest of its SQL, and its executions are timed in
+ * {@code jdbc.statements}, and their rows, returned or updated, summed up in {@code jdbc.statements.rows}, both tagged
+ * by {@code statement} id and {@code operation}. A batch counts as a single execution. Statements running for longer
+ * than {@code application.sql.slow-query-threshold} are logged, with their shape only, so that no health data ends up
+ * in the logs.
+ * <p>
+ * The statements of the HTTP request being served by the current thread are also counted, for
+ * {@link SqlStatementCountFilter}. Statements run on other threads, by {@code @Async} tasks for instance, are not.
+ */
+public class SqlStatementMetrics implements QueryExecutionListener {
+
+    static final String OTHER = "other";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int ID_BYTES = 8;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration slowQueryThreshold;
+
+    private final int maxStatementShapes;
+
+    private final Map<String, StatementShape> shapes = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Read> reads = new ThreadLocal<>();
+
+    private final ThreadLocal<RequestStatements> requests = new ThreadLocal<>();
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry, ApplicationProperties.Sql sql) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryThreshold = sql.getSlowQueryThreshold();
+        this.maxStatementShapes = sql.getMaxStatementShapes();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // The previous result set of the thread was not closed: its rows are recorded as they are
+        finishRead();
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        StatementShape shape = shapeOf(sql);
+        long elapsed = execInfo.getElapsedTime();
+        shape.timer().record(elapsed, TimeUnit.MILLISECONDS);
+        Object result = execInfo.getResult();
+        if (result instanceof ResultSet) {
+            reads.set(new Read(shape));
+        } else if (result instanceof Number updated) {
+            shape.rows().record(updated.doubleValue());
+        } else if (result instanceof int[] updated) {
+            shape.rows().record(sumOf(updated));
+        } else if (result instanceof long[] updated) {
+            shape.rows().record(sumOf(updated));
+        }
+        RequestStatements request = requests.get();
+        if (request != null) {
+            request.statements++;
+            request.elapsed += elapsed;
+        }
+        if (slowQueryThreshold != null && elapsed >= slowQueryThreshold.toMillis()) {
+            LOG.warn("Slow statement {} took {} ms: {}", shape.id(), elapsed, shape.sql());
+        }
+    }
+
+    /**
+     * Get the logic of the result set proxies, counting the rows read from {@code next()} until {@code close()}, and
+     * passing all the other calls to the result set.
+     *
+     * @return the factory of the result set proxy logics.
+     */
+    ResultSetProxyLogicFactory rowCountingResultSets() {
+        return (resultSet, connectionInfo, proxyConfig) ->
+            (method, args) -> {
+                String name = method.getName();
+                if ("getTarget".equals(name)) {
+                    // ProxyJdbcObject, implemented by the proxy
+                    return resultSet;
+                }
+                Object result;
+                try {
+                    result = method.invoke(resultSet, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                if ("next".equals(name)) {
+                    Read read = reads.get();
+                    if (read != null && Boolean.TRUE.equals(result)) {
+                        read.rows++;
+                    }
+                } else if ("close".equals(name)) {
+                    finishRead();
+                }
+                return result;
+            };
+    }
+
+    /**
+     * Start counting the statements of the current thread, until {@link #finishRequest()}.
+     */
+    void startRequest() {
+        requests.set(new RequestStatements());
+    }
+
+    /**
+     * Stop counting the statements of the current thread.
+     *
+     * @return the statements run since {@link #startRequest()}.
+     */
+    RequestStatements finishRequest() {
+        finishRead();
+        RequestStatements request = requests.get();
+        requests.remove();
+        return request != null ? request : new RequestStatements();
+    }
+
+    Collection<StatementShape> getShapes() {
+        return shapes.values();
+    }
+
+    /**
+     * Replace the literals of a statement by {@code ?}, collapse its {@code in} lists and its whitespace, so that the
+     * executions of a query with different parameters share a shape.
+     */
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * The id of a statement shape: the first 64 bits of the SHA-256 digest of its SQL, in hexadecimal.
+     */
+    static String idOf(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, ID_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private StatementShape shapeOf(String sql) {
+        // Shapes are kept by SQL, so that the digest is only computed for new shapes
+        String normalized = normalize(sql);
+        StatementShape shape = shapes.get(normalized);
+        if (shape != null) {
+            return shape;
+        }
+        if (shapes.size() >= maxStatementShapes) {
+            return shapes.computeIfAbsent(OTHER, other -> register(OTHER, OTHER, OTHER));
+        }
+        return shapes.computeIfAbsent(normalized, key -> register(idOf(key), operationOf(key), key));
+    }
+
+    private StatementShape register(String id, String operation, String sql) {
+        return new StatementShape(
+            id,
+            operation,
+            sql,
+            Timer.builder("jdbc.statements")
+                .description("Executions of the JDBC statements")
+                .tag("statement", id)
+                .tag("operation", operation)
+                .register(meterRegistry),
+            DistributionSummary.builder("jdbc.statements.rows")
+                .description("Rows returned or updated by the JDBC statements")
+                .tag("statement", id)
+                .tag("operation", operation)
+                .register(meterRegistry)
+        );
+    }
+
+    private void finishRead() {
+        Read read = reads.get();
+        if (read != null) {
+            reads.remove();
+            read.shape.rows().record(read.rows);
+        }
+    }
+
+    private static String operationOf(String sql) {
+        int end = sql.indexOf(' ');
+        String keyword = (end < 0 ? sql : sql.substring(0, end)).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with", "insert", "update", "delete", "merge", "call" -> keyword;
+            default -> OTHER;
+        };
+    }
+
+    private static long sumOf(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    private static long sumOf(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += Math.max(count, 0);
+        }
+        return sum;
+    }
+
+    /**
+     * A statement shape and its meters.
+     */
+    record StatementShape(String id, String operation, String sql, Timer timer, DistributionSummary rows) {}
+
+    /**
+     * The statements of an HTTP request.
+     */
+    static class RequestStatements {
+
+        int statements;
+
+        long elapsed;
+    }
+
+    /**
+     * A result set being read by the current thread.
+     */
+    private static class Read {
+
+        private final StatementShape shape;
+
+        private long rows;
+
+        Read(StatementShape shape) {
+            this.shape = shape;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.hank.twentyonepoints.config;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * Management endpoint listing the JDBC statement shapes measured by {@link SqlStatementMetrics}, with their SQL, the
+ * most time consuming first. The {@code id} of a shape is the {@code statement} tag of its meters.
+ */
+@Endpoint(id = "sqlstatements")
+public class SqlStatementsEndpoint {
+
+    private final SqlStatementMetrics sqlStatementMetrics;
+
+    public SqlStatementsEndpoint(SqlStatementMetrics sqlStatementMetrics) {
+        this.sqlStatementMetrics = sqlStatementMetrics;
+    }
+
+    @ReadOperation
+    public List<StatementStatistics> statements() {
+        return sqlStatementMetrics
+            .getShapes()
+            .stream()
+            .map(shape ->
+                new StatementStatistics(
+                    shape.id(),
+                    shape.operation(),
+                    shape.sql(),
+                    shape.timer().count(),
+                    shape.timer().totalTime(TimeUnit.MILLISECONDS),
+                    shape.timer().mean(TimeUnit.MILLISECONDS),
+                    shape.timer().max(TimeUnit.MILLISECONDS),
+                    shape.rows().totalAmount()
+                )
+            )
+            .sorted(Comparator.comparingDouble(StatementStatistics::totalTimeMs).reversed())
+            .toList();
+    }
+
+    /**
+     * The executions of a statement shape, since the start of the node. {@code maxTimeMs} only covers the last few
+     * minutes.
+     */
+    public record StatementStatistics(
+        String id,
+        String operation,
+        String sql,
+        long count,
+        double totalTimeMs,
+        double meanTimeMs,
+        double maxTimeMs,
+        double rows
+    ) {}
+}
@@ -0,0 +1,113 @@
+package io.hank.twentyonepoints.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the virtual threads which stayed pinned to their carrier thread while blocked, when running on virtual threads.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block or a native frame holds its carrier thread, and a few of
+ * them are enough to stall every other virtual thread. The PostgreSQL driver, the connection pool and Redisson only use
+ * {@link java.util.concurrent.locks.Lock}s on their blocking paths, and so does the application code, but a dependency
+ * upgrade or a new {@code synchronized} can silently bring pinning back. This monitor listens to the
+ * {@code jdk.VirtualThreadPinned} JFR events, counts them in {@code jvm.threads.virtual.pinned} by the library they
+ * happened in, and logs where they happened.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private static final int LOGGED_FRAMES = 10;
+
+    private final MeterRegistry meterRegistry;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+    }
+
+    @Override
+    public void destroy() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        Counter.builder("jvm.threads.virtual.pinned")
+            .description("Virtual threads pinned to their carrier thread while blocked")
+            .tag("source", sourceOf(frames))
+            .register(meterRegistry)
+            .increment();
+        LOG.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), format(event.getStackTrace()));
+    }
+
+    /**
+     * Tell which of the blocking paths known to matter the pinning happened in, from the known frame closest to the
+     * top of the stack.
+     */
+    static String sourceOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("java.sql.") || type.startsWith("org.postgresql.") || type.startsWith("org.h2.")) {
+                return "jdbc";
+            }
+            if (type.startsWith("com.zaxxer.hikari.")) {
+                return "connection-pool";
+            }
+            if (type.startsWith("org.redisson.") || type.startsWith("io.netty.")) {
+                return "redisson";
+            }
+            if (type.startsWith("io.hank.twentyonepoints.")) {
+                return "application";
+            }
+        }
+        return "other";
+    }
+
+    private static String format(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "an unknown location";
+        }
+        return stackTrace
+            .getFrames()
+            .stream()
+            .limit(LOGGED_FRAMES)
+            .filter(frame -> frame.getMethod() != null)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            .collect(Collectors.joining(" < "));
+    }
+}
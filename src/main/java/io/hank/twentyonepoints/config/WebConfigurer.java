@@ -8,6 +8,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -15,10 +17,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.xnio.Options;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.h2.H2ConfigurationHelper;
@@ -35,9 +39,12 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(Environment env, JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -53,12 +60,41 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
     }
 
     /**
-     * Customize the Servlet engine: Mime types, the document root, the cache.
+     * Customize the Servlet engine: Mime types, the document root, the cache, the threads requests run on, the write
+     * timeout.
      */
     @Override
     public void customize(WebServerFactory server) {
         // When running in an IDE or with ./gradlew bootRun, set location of the static web assets.
         setLocationForStaticAssets(server);
+        if (Threading.VIRTUAL.isActive(env)) {
+            dispatchRequestsOnVirtualThreads(server);
+        }
+        setWriteTimeout(server);
+    }
+
+    /**
+     * Fail the writes to a client which has not read anything for {@code application.sse.send-timeout}, instead of
+     * blocking the writing thread until the connection drops: a stalled server-sent events client would otherwise hold
+     * one of the few threads sending the events of all the clients.
+     */
+    private void setWriteTimeout(WebServerFactory server) {
+        if (server instanceof UndertowServletWebServerFactory undertow) {
+            int writeTimeout = (int) applicationProperties.getSse().getSendTimeout().toMillis();
+            undertow.addBuilderCustomizers(builder -> builder.setSocketOption(Options.WRITE_TIMEOUT, writeTimeout));
+        }
+    }
+
+    /**
+     * Run each request on its own virtual thread instead of the Undertow worker pool, so that requests blocked on
+     * slow downstream calls do not hold a platform thread.
+     */
+    private void dispatchRequestsOnVirtualThreads(WebServerFactory server) {
+        if (server instanceof UndertowServletWebServerFactory undertow) {
+            LOG.info("Dispatching requests on virtual threads");
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("twenty-one-points-http-");
+            undertow.addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor));
+        }
     }
 
     private void setLocationForStaticAssets(WebServerFactory server) {
@@ -21,7 +21,7 @@ public class BloodPressure implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "id_generator", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
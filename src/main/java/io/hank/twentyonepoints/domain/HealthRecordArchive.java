@@ -0,0 +1,195 @@
+package io.hank.twentyonepoints.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A chunk of archived health records of a user: points, weights or blood pressures past the retention period, moved
+ * out of their table as gzipped JSON.
+ */
+@Entity
+@Table(name = "health_record_archive")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class HealthRecordArchive implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "id_generator", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 50)
+    @Column(name = "entity_type", length = 50, nullable = false)
+    private String entityType;
+
+    @Size(max = 100)
+    @Column(name = "user_id", length = 100)
+    private String userId;
+
+    @NotNull
+    @Column(name = "from_date", nullable = false)
+    private LocalDate fromDate;
+
+    @NotNull
+    @Column(name = "to_date", nullable = false)
+    private LocalDate toDate;
+
+    @NotNull
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    @NotNull
+    @JsonIgnore
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @NotNull
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    // jhipster-needle-entity-add-field - JHipster will add fields here
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public HealthRecordArchive id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return this.entityType;
+    }
+
+    public HealthRecordArchive entityType(String entityType) {
+        this.setEntityType(entityType);
+        return this;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getUserId() {
+        return this.userId;
+    }
+
+    public HealthRecordArchive userId(String userId) {
+        this.setUserId(userId);
+        return this;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getFromDate() {
+        return this.fromDate;
+    }
+
+    public HealthRecordArchive fromDate(LocalDate fromDate) {
+        this.setFromDate(fromDate);
+        return this;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return this.toDate;
+    }
+
+    public HealthRecordArchive toDate(LocalDate toDate) {
+        this.setToDate(toDate);
+        return this;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public Integer getRecordCount() {
+        return this.recordCount;
+    }
+
+    public HealthRecordArchive recordCount(Integer recordCount) {
+        this.setRecordCount(recordCount);
+        return this;
+    }
+
+    public void setRecordCount(Integer recordCount) {
+        this.recordCount = recordCount;
+    }
+
+    public byte[] getPayload() {
+        return this.payload;
+    }
+
+    public HealthRecordArchive payload(byte[] payload) {
+        this.setPayload(payload);
+        return this;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public Instant getArchivedAt() {
+        return this.archivedAt;
+    }
+
+    public HealthRecordArchive archivedAt(Instant archivedAt) {
+        this.setArchivedAt(archivedAt);
+        return this;
+    }
+
+    public void setArchivedAt(Instant archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof HealthRecordArchive)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((HealthRecordArchive) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "HealthRecordArchive{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", userId='" + getUserId() + "'" +
+            ", fromDate='" + getFromDate() + "'" +
+            ", toDate='" + getToDate() + "'" +
+            ", recordCount=" + getRecordCount() +
+            ", archivedAt='" + getArchivedAt() + "'" +
+            "}";
+    }
+}
@@ -21,7 +21,7 @@ public class Preferences implements Serializable {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "id_generator", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -38,6 +38,10 @@ public class Preferences implements Serializable {
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword)
     private Units weightUnits;
 
+    @Column(name = "leaderboard_opt_in")
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Boolean)
+    private Boolean leaderboardOptIn;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(unique = true)
     private User user;
@@ -83,6 +87,19 @@ public class Preferences implements Serializable {
         this.weightUnits = weightUnits;
     }
 
+    public Boolean getLeaderboardOptIn() {
+        return this.leaderboardOptIn;
+    }
+
+    public Preferences leaderboardOptIn(Boolean leaderboardOptIn) {
+        this.setLeaderboardOptIn(leaderboardOptIn);
+        return this;
+    }
+
+    public void setLeaderboardOptIn(Boolean leaderboardOptIn) {
+        this.leaderboardOptIn = leaderboardOptIn;
+    }
+
     public User getUser() {
         return this.user;
     }
@@ -122,6 +139,7 @@ public class Preferences implements Serializable {
             "id=" + getId() +
             ", weeklyGoal=" + getWeeklyGoal() +
             ", weightUnits='" + getWeightUnits() + "'" +
+            ", leaderboardOptIn='" + getLeaderboardOptIn() + "'" +
             "}";
     }
 }
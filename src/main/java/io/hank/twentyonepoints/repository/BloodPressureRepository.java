@@ -1,10 +1,15 @@
 package io.hank.twentyonepoints.repository;
 
 import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.repository.projection.BloodPressureSummary;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +22,12 @@ public interface BloodPressureRepository extends JpaRepository<BloodPressure, Lo
     @Query("select bloodPressure from BloodPressure bloodPressure where bloodPressure.user.login = ?#{authentication.name}")
     List<BloodPressure> findByUserIsCurrentUser();
 
+    Optional<BloodPressure> findFirstByUserLoginOrderByTimestampDesc(String login);
+
+    List<BloodPressure> findAllByUserLoginOrderByTimestampAsc(String login);
+
+    List<BloodPressure> findAllByTimestampBeforeOrderByUserIdAscTimestampAsc(ZonedDateTime cutoff, Limit limit);
+
     default Optional<BloodPressure> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -29,6 +40,10 @@ public interface BloodPressureRepository extends JpaRepository<BloodPressure, Lo
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<BloodPressure> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
     @Query(
         value = "select bloodPressure from BloodPressure bloodPressure left join fetch bloodPressure.user",
         countQuery = "select count(bloodPressure) from BloodPressure bloodPressure"
@@ -38,6 +53,26 @@ public interface BloodPressureRepository extends JpaRepository<BloodPressure, Lo
     @Query("select bloodPressure from BloodPressure bloodPressure left join fetch bloodPressure.user")
     List<BloodPressure> findAllWithToOneRelationships();
 
+    @Query("select bloodPressure from BloodPressure bloodPressure left join fetch bloodPressure.user where bloodPressure.id in :ids")
+    List<BloodPressure> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
     @Query("select bloodPressure from BloodPressure bloodPressure left join fetch bloodPressure.user where bloodPressure.id =:id")
     Optional<BloodPressure> findOneWithToOneRelationships(@Param("id") Long id);
+
+    // Lists select the columns they return and the login of the user, instead of loading the entities and their users.
+    // Slices read one row more than their size to tell whether there is a next one, and run no count query
+    @Query(
+        value = "select new io.hank.twentyonepoints.repository.projection.BloodPressureSummary(" +
+        "bloodPressure.id, bloodPressure.timestamp, bloodPressure.systolic, bloodPressure.diastolic, owner.id, owner.login) " +
+        "from BloodPressure bloodPressure left join bloodPressure.user owner",
+        countQuery = "select count(bloodPressure) from BloodPressure bloodPressure"
+    )
+    Page<BloodPressureSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select new io.hank.twentyonepoints.repository.projection.BloodPressureSummary(" +
+        "bloodPressure.id, bloodPressure.timestamp, bloodPressure.systolic, bloodPressure.diastolic, owner.id, owner.login) " +
+        "from BloodPressure bloodPressure left join bloodPressure.user owner"
+    )
+    Slice<BloodPressureSummary> findSliceSummaries(Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package io.hank.twentyonepoints.repository;
+
+import io.hank.twentyonepoints.domain.HealthRecordArchive;
+import java.util.List;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the HealthRecordArchive entity.
+ */
+@Repository
+public interface HealthRecordArchiveRepository extends JpaRepository<HealthRecordArchive, Long> {
+    List<HealthRecordArchive> findAllByUserIdAndEntityTypeOrderByFromDateAsc(String userId, String entityType);
+}
@@ -1,10 +1,15 @@
 package io.hank.twentyonepoints.repository;
 
 import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.repository.projection.PointsSummary;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +22,31 @@ public interface PointsRepository extends JpaRepository<Points, Long> {
     @Query("select points from Points points where points.user.login = ?#{authentication.name}")
     List<Points> findByUserIsCurrentUser();
 
+    List<Points> findAllByUserLoginOrderByDateAsc(String login);
+
+    List<Points> findAllByDateBeforeOrderByUserIdAscDateAsc(LocalDate cutoff, Limit limit);
+
+    // Range queries compare the date itself with the bounds, so that PostgreSQL only scans the partitions of the period
+    @Query(
+        "select coalesce(sum(coalesce(points.exercise, 0) + coalesce(points.meals, 0) + coalesce(points.alcohol, 0)), 0) " +
+        "from Points points where points.user.id = :userId and points.date between :fromDate and :toDate"
+    )
+    long sumPointsByUserIdAndDateBetween(
+        @Param("userId") String userId,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+
+    @Query(
+        "select coalesce(sum(coalesce(points.exercise, 0) + coalesce(points.meals, 0) + coalesce(points.alcohol, 0)), 0) " +
+        "from Points points where points.user.login = :login and points.date between :fromDate and :toDate"
+    )
+    long sumPointsByUserLoginAndDateBetween(
+        @Param("login") String login,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate
+    );
+
     default Optional<Points> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -29,12 +59,36 @@ public interface PointsRepository extends JpaRepository<Points, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Points> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
     @Query(value = "select points from Points points left join fetch points.user", countQuery = "select count(points) from Points points")
     Page<Points> findAllWithToOneRelationships(Pageable pageable);
 
     @Query("select points from Points points left join fetch points.user")
     List<Points> findAllWithToOneRelationships();
 
+    @Query("select points from Points points left join fetch points.user where points.id in :ids")
+    List<Points> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
     @Query("select points from Points points left join fetch points.user where points.id =:id")
     Optional<Points> findOneWithToOneRelationships(@Param("id") Long id);
+
+    // Lists select the columns they return and the login of the user, instead of loading the entities and their users.
+    // Slices read one row more than their size to tell whether there is a next one, and run no count query
+    @Query(
+        value = "select new io.hank.twentyonepoints.repository.projection.PointsSummary(" +
+        "points.id, points.date, points.exercise, points.meals, points.alcohol, points.notes, owner.id, owner.login) " +
+        "from Points points left join points.user owner",
+        countQuery = "select count(points) from Points points"
+    )
+    Page<PointsSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select new io.hank.twentyonepoints.repository.projection.PointsSummary(" +
+        "points.id, points.date, points.exercise, points.meals, points.alcohol, points.notes, owner.id, owner.login) " +
+        "from Points points left join points.user owner"
+    )
+    Slice<PointsSummary> findSliceSummaries(Pageable pageable);
 }
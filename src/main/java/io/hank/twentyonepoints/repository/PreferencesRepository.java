@@ -1,8 +1,11 @@
 package io.hank.twentyonepoints.repository;
 
 import io.hank.twentyonepoints.domain.Preferences;
+import io.hank.twentyonepoints.repository.projection.PreferencesSummary;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -14,6 +17,22 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface PreferencesRepository extends JpaRepository<Preferences, Long> {
+    String PREFERENCES_BY_LOGIN_CACHE = "preferencesByLogin";
+
+    boolean existsByUserIdAndLeaderboardOptInTrue(String userId);
+
+    Optional<Preferences> findOneByUserLogin(String login);
+
+    // Users without preferences are cached too, as the dashboard looks them up on every visit. The entries expire after
+    // application.dashboard.preferences-time-to-live, which bounds how stale they can get, see PreferencesService
+    @Cacheable(cacheNames = PREFERENCES_BY_LOGIN_CACHE)
+    @Query(
+        "select new io.hank.twentyonepoints.repository.projection.PreferencesSummary(" +
+        "preferences.id, preferences.weeklyGoal, preferences.weightUnits, preferences.leaderboardOptIn, owner.id, owner.login) " +
+        "from Preferences preferences join preferences.user owner where owner.login = :login"
+    )
+    Optional<PreferencesSummary> findSummaryByUserLogin(@Param("login") String login);
+
     default Optional<Preferences> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -26,6 +45,10 @@ public interface PreferencesRepository extends JpaRepository<Preferences, Long>
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Preferences> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
     @Query(
         value = "select preferences from Preferences preferences left join fetch preferences.user",
         countQuery = "select count(preferences) from Preferences preferences"
@@ -35,6 +58,9 @@ public interface PreferencesRepository extends JpaRepository<Preferences, Long>
     @Query("select preferences from Preferences preferences left join fetch preferences.user")
     List<Preferences> findAllWithToOneRelationships();
 
+    @Query("select preferences from Preferences preferences left join fetch preferences.user where preferences.id in :ids")
+    List<Preferences> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
     @Query("select preferences from Preferences preferences left join fetch preferences.user where preferences.id =:id")
     Optional<Preferences> findOneWithToOneRelationships(@Param("id") Long id);
 }
@@ -1,10 +1,15 @@
 package io.hank.twentyonepoints.repository;
 
 import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.projection.WeightSummary;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,6 +22,12 @@ public interface WeightRepository extends JpaRepository<Weight, Long> {
     @Query("select weight from Weight weight where weight.user.login = ?#{authentication.name}")
     List<Weight> findByUserIsCurrentUser();
 
+    Optional<Weight> findFirstByUserLoginOrderByTimestampDesc(String login);
+
+    List<Weight> findAllByUserLoginOrderByTimestampAsc(String login);
+
+    List<Weight> findAllByTimestampBeforeOrderByUserIdAscTimestampAsc(ZonedDateTime cutoff, Limit limit);
+
     default Optional<Weight> findOneWithEagerRelationships(Long id) {
         return this.findOneWithToOneRelationships(id);
     }
@@ -29,12 +40,36 @@ public interface WeightRepository extends JpaRepository<Weight, Long> {
         return this.findAllWithToOneRelationships(pageable);
     }
 
+    default List<Weight> findAllWithEagerRelationships(Collection<Long> ids) {
+        return this.findAllWithToOneRelationships(ids);
+    }
+
     @Query(value = "select weight from Weight weight left join fetch weight.user", countQuery = "select count(weight) from Weight weight")
     Page<Weight> findAllWithToOneRelationships(Pageable pageable);
 
     @Query("select weight from Weight weight left join fetch weight.user")
     List<Weight> findAllWithToOneRelationships();
 
+    @Query("select weight from Weight weight left join fetch weight.user where weight.id in :ids")
+    List<Weight> findAllWithToOneRelationships(@Param("ids") Collection<Long> ids);
+
     @Query("select weight from Weight weight left join fetch weight.user where weight.id =:id")
     Optional<Weight> findOneWithToOneRelationships(@Param("id") Long id);
+
+    // Lists select the columns they return and the login of the user, instead of loading the entities and their users.
+    // Slices read one row more than their size to tell whether there is a next one, and run no count query
+    @Query(
+        value = "select new io.hank.twentyonepoints.repository.projection.WeightSummary(" +
+        "weight.id, weight.timestamp, weight.weight, owner.id, owner.login) " +
+        "from Weight weight left join weight.user owner",
+        countQuery = "select count(weight) from Weight weight"
+    )
+    Page<WeightSummary> findAllSummaries(Pageable pageable);
+
+    @Query(
+        "select new io.hank.twentyonepoints.repository.projection.WeightSummary(" +
+        "weight.id, weight.timestamp, weight.weight, owner.id, owner.login) " +
+        "from Weight weight left join weight.user owner"
+    )
+    Slice<WeightSummary> findSliceSummaries(Pageable pageable);
 }
@@ -0,0 +1,14 @@
+package io.hank.twentyonepoints.repository.projection;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * The columns of a {@link io.hank.twentyonepoints.domain.BloodPressure} shown in lists, with the login of its user.
+ */
+public record BloodPressureSummary(Long id, ZonedDateTime timestamp, Integer systolic, Integer diastolic, OwnerSummary user)
+    implements Serializable {
+    public BloodPressureSummary(Long id, ZonedDateTime timestamp, Integer systolic, Integer diastolic, String userId, String userLogin) {
+        this(id, timestamp, systolic, diastolic, OwnerSummary.of(userId, userLogin));
+    }
+}
@@ -0,0 +1,16 @@
+package io.hank.twentyonepoints.repository.projection;
+
+import java.io.Serializable;
+
+/**
+ * The user owning a projected entity, serialized like the {@code user} of the entity for the clients which only read
+ * its id and login.
+ *
+ * @param id the id of the user.
+ * @param login the login of the user.
+ */
+public record OwnerSummary(String id, String login) implements Serializable {
+    static OwnerSummary of(String id, String login) {
+        return id != null ? new OwnerSummary(id, login) : null;
+    }
+}
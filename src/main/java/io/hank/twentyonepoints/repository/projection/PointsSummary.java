@@ -0,0 +1,23 @@
+package io.hank.twentyonepoints.repository.projection;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * The columns of a {@link io.hank.twentyonepoints.domain.Points} shown in lists, with the login of its user.
+ */
+public record PointsSummary(Long id, LocalDate date, Integer exercise, Integer meals, Integer alcohol, String notes, OwnerSummary user)
+    implements Serializable {
+    public PointsSummary(
+        Long id,
+        LocalDate date,
+        Integer exercise,
+        Integer meals,
+        Integer alcohol,
+        String notes,
+        String userId,
+        String userLogin
+    ) {
+        this(id, date, exercise, meals, alcohol, notes, OwnerSummary.of(userId, userLogin));
+    }
+}
@@ -0,0 +1,15 @@
+package io.hank.twentyonepoints.repository.projection;
+
+import io.hank.twentyonepoints.domain.enumeration.Units;
+import java.io.Serializable;
+
+/**
+ * The settings of a {@link io.hank.twentyonepoints.domain.Preferences}, with the login of its user, small and detached
+ * enough to be cached.
+ */
+public record PreferencesSummary(Long id, Integer weeklyGoal, Units weightUnits, Boolean leaderboardOptIn, OwnerSummary user)
+    implements Serializable {
+    public PreferencesSummary(Long id, Integer weeklyGoal, Units weightUnits, Boolean leaderboardOptIn, String userId, String userLogin) {
+        this(id, weeklyGoal, weightUnits, leaderboardOptIn, OwnerSummary.of(userId, userLogin));
+    }
+}
@@ -0,0 +1,13 @@
+package io.hank.twentyonepoints.repository.projection;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * The columns of a {@link io.hank.twentyonepoints.domain.Weight} shown in lists, with the login of its user.
+ */
+public record WeightSummary(Long id, ZonedDateTime timestamp, Double weight, OwnerSummary user) implements Serializable {
+    public WeightSummary(Long id, ZonedDateTime timestamp, Double weight, String userId, String userLogin) {
+        this(id, timestamp, weight, OwnerSummary.of(userId, userLogin));
+    }
+}
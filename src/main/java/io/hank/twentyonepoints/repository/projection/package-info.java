@@ -0,0 +1,4 @@
+/**
+ * Read-only projections of the entities, selecting only the columns the list endpoints return.
+ */
+package io.hank.twentyonepoints.repository.projection;
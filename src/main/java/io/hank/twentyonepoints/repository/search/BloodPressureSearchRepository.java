@@ -3,6 +3,7 @@ package io.hank.twentyonepoints.repository.search;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
 import io.hank.twentyonepoints.domain.BloodPressure;
 import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -11,6 +12,7 @@ import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
 import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 import org.springframework.scheduling.annotation.Async;
@@ -26,11 +28,29 @@ interface BloodPressureSearchRepositoryInternal {
 
     Page<BloodPressure> search(Query query);
 
+    /**
+     * Index an entity, in the inline indexing mode. Callers skip it in the kafka mode, where the entity change events
+     * index the entity, so that no task is queued for nothing.
+     */
     @Async
     void index(BloodPressure entity);
 
+    /**
+     * Remove an entity from the index, in the inline indexing mode. Callers skip it in the kafka mode, like
+     * {@link #index}.
+     */
     @Async
     void deleteFromIndexById(Long id);
+
+    /**
+     * Index the current state of entities in a single bulk request. Entities which do not exist anymore are skipped.
+     */
+    void bulkIndex(Collection<Long> ids);
+
+    /**
+     * Remove entities from the index in a single request.
+     */
+    void deleteFromIndexByIds(Collection<Long> ids);
 }
 
 class BloodPressureSearchRepositoryInternalImpl implements BloodPressureSearchRepositoryInternal {
@@ -65,4 +85,22 @@ class BloodPressureSearchRepositoryInternalImpl implements BloodPressureSearchRe
     public void deleteFromIndexById(Long id) {
         elasticsearchTemplate.delete(String.valueOf(id), BloodPressure.class);
     }
+
+    @Override
+    public void bulkIndex(Collection<Long> ids) {
+        List<BloodPressure> entities = repository.findAllWithEagerRelationships(ids);
+        if (!entities.isEmpty()) {
+            elasticsearchTemplate.save(entities);
+        }
+    }
+
+    @Override
+    public void deleteFromIndexByIds(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            elasticsearchTemplate.delete(
+                DeleteQuery.builder(NativeQuery.builder().withIds(ids.stream().map(String::valueOf).toList()).build()).build(),
+                BloodPressure.class
+            );
+        }
+    }
 }
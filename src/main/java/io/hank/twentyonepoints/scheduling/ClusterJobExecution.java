@@ -0,0 +1,61 @@
+package io.hank.twentyonepoints.scheduling;
+
+import org.redisson.api.RLock;
+
+/**
+ * The current run of a cluster job, given to the job.
+ */
+public class ClusterJobExecution {
+
+    private final String job;
+
+    private final long fencingToken;
+
+    private final RLock lock;
+
+    private final ClusterJobFence fence;
+
+    ClusterJobExecution(String job, long fencingToken, RLock lock, ClusterJobFence fence) {
+        this.job = job;
+        this.fencingToken = fencingToken;
+        this.lock = lock;
+        this.fence = fence;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * The fencing token of the lock the job runs under. It grows with every acquisition of the lock, so a store
+     * keeping the highest token it has seen can reject the writes of a node which lost the lock while running, for
+     * instance during a pause longer than the lease: see {@link #fence()} for the database.
+     *
+     * @return the fencing token.
+     */
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * Check that this node still holds the lock of the job, which long jobs should do between steps.
+     *
+     * @return whether the job still holds its lock.
+     */
+    public boolean isLockHeld() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Guard the writes of the current transaction with the fencing token: jobs writing to the database call this
+     * first in each of their transactions. The transaction then waits for the one of any other run of the job holding
+     * the fence, and fails if a later run has written already.
+     *
+     * @throws IllegalStateException if a run of the job with a later fencing token has written already.
+     */
+    public void fence() {
+        if (!fence.advance(job, fencingToken)) {
+            throw new IllegalStateException("Job " + job + " has run again on another node since fencing token " + fencingToken);
+        }
+    }
+}
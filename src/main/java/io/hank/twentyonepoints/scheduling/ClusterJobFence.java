@@ -0,0 +1,54 @@
+package io.hank.twentyonepoints.scheduling;
+
+import javax.sql.DataSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The fencing tokens of the cluster jobs, kept in the {@code cluster_job_fence} table next to the data the jobs write.
+ * <p>
+ * A job advances the token of its run in the transaction of each of its writes: the row stays locked until the
+ * transaction ends, and a run holding an older token than the last one which wrote fails to advance it, so its writes
+ * are rolled back.
+ */
+@Component
+public class ClusterJobFence {
+
+    private static final String ADVANCE = "update cluster_job_fence set fencing_token = ? where job = ? and fencing_token <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate newTransaction;
+
+    public ClusterJobFence(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Advance the token of a job, in the current transaction.
+     *
+     * @param job the name of the job.
+     * @param fencingToken the fencing token of the run.
+     * @return {@code false} if a run with a later token has written already.
+     */
+    boolean advance(String job, long fencingToken) {
+        if (jdbcTemplate.update(ADVANCE, fencingToken, job, fencingToken) == 1) {
+            return true;
+        }
+        newTransaction.executeWithoutResult(status -> {
+            try {
+                jdbcTemplate.update("insert into cluster_job_fence (job, fencing_token) values (?, 0)", job);
+            } catch (DuplicateKeyException e) {
+                // Inserted by another run meanwhile
+                status.setRollbackOnly();
+            }
+        });
+        return jdbcTemplate.update(ADVANCE, fencingToken, job, fencingToken) == 1;
+    }
+}
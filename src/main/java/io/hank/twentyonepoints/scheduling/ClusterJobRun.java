@@ -0,0 +1,31 @@
+package io.hank.twentyonepoints.scheduling;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * A past run of a cluster job.
+ *
+ * @param job the name of the job.
+ * @param node the node the job ran on.
+ * @param fencingToken the fencing token of the lock the job ran under.
+ * @param startedAt when the job started.
+ * @param durationMillis how long the job ran.
+ * @param outcome how the job ended.
+ * @param error the error the job failed with, if it failed.
+ */
+public record ClusterJobRun(
+    String job,
+    String node,
+    long fencingToken,
+    Instant startedAt,
+    long durationMillis,
+    Outcome outcome,
+    String error
+)
+    implements Serializable {
+    public enum Outcome {
+        SUCCEEDED,
+        FAILED,
+    }
+}
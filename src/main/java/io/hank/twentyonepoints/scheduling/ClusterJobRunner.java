@@ -0,0 +1,176 @@
+package io.hank.twentyonepoints.scheduling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.redisson.api.RBucket;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RList;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runner of the jobs which must run on a single node of the cluster at a time, such as maintenance work.
+ * <p>
+ * Jobs are triggered on every node, typically by a {@code @Scheduled} method calling {@link #run(String, Consumer)}, and
+ * only the node getting the Redis lock of the job runs it, the other ones skip it. The lock has no fixed lease: it is
+ * renewed by the Redisson watchdog as long as the node is alive, and released as soon as the job ends. A run also
+ * leaves a marker for {@code application.jobs.lock-at-least-for}, and the nodes getting the lock while it is there skip
+ * the job as well: the triggers of the nodes are a few milliseconds apart, and a short job would otherwise run once per
+ * node, each getting the lock right after the previous one released it.
+ * <p>
+ * The fencing token of the lock is given to the job, which guards its database writes with it, see
+ * {@link ClusterJobExecution#fence()}.
+ * <p>
+ * Runs are timed in {@code jobs.runs} by job and outcome, skipped runs are counted in {@code jobs.skipped}, and the
+ * last runs of each job are kept in Redis, see {@link #getHistory(String)}.
+ */
+@Component
+public class ClusterJobRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    private static final String LOCK_PREFIX = "jobs:lock:";
+
+    private static final String HISTORY_PREFIX = "jobs:history:";
+
+    private static final String RAN_PREFIX = "jobs:ran:";
+
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final RedissonClient redissonClient;
+
+    private final ClusterJobFence fence;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TypedJsonJacksonCodec historyCodec;
+
+    private final int historySize;
+
+    private final Duration lockAtLeastFor;
+
+    public ClusterJobRunner(
+        RedissonClient redissonClient,
+        ClusterJobFence fence,
+        MeterRegistry meterRegistry,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.redissonClient = redissonClient;
+        this.fence = fence;
+        this.meterRegistry = meterRegistry;
+        this.historyCodec = new TypedJsonJacksonCodec(ClusterJobRun.class, objectMapper);
+        this.historySize = applicationProperties.getJobs().getHistorySize();
+        this.lockAtLeastFor = applicationProperties.getJobs().getLockAtLeastFor();
+    }
+
+    /**
+     * Run a job, unless another node is running it or has just run it.
+     * <p>
+     * A failure of the job is logged and recorded, not thrown.
+     *
+     * @param job the name of the job, unique in the cluster.
+     * @param task the work of the job.
+     * @return whether this node ran the job.
+     */
+    public boolean run(String job, Consumer<ClusterJobExecution> task) {
+        RFencedLock lock = redissonClient.getFencedLock(LOCK_PREFIX + job);
+        Long fencingToken = lock.tryLockAndGetToken();
+        if (fencingToken == null) {
+            LOG.debug("Skipping job {}, running on another node", job);
+            countSkipped(job, "running");
+            return false;
+        }
+        RBucket<String> ran = redissonClient.getBucket(RAN_PREFIX + job, StringCodec.INSTANCE);
+        if (ran.isExists()) {
+            LOG.debug("Skipping job {}, just run by {}", job, ran.get());
+            lock.unlock();
+            countSkipped(job, "ran");
+            return false;
+        }
+        LOG.debug("Running job {} with fencing token {}", job, fencingToken);
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        ClusterJobRun.Outcome outcome = ClusterJobRun.Outcome.SUCCEEDED;
+        String error = null;
+        try {
+            task.accept(new ClusterJobExecution(job, fencingToken, lock, fence));
+        } catch (RuntimeException e) {
+            LOG.error("Job {} failed", job, e);
+            outcome = ClusterJobRun.Outcome.FAILED;
+            error = e.toString();
+        } finally {
+            long duration = System.nanoTime() - start;
+            Timer.builder("jobs.runs")
+                .description("Runs of cluster jobs")
+                .tag("job", job)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+            record(new ClusterJobRun(job, node, fencingToken, startedAt, TimeUnit.NANOSECONDS.toMillis(duration), outcome, error));
+            markRan(ran);
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            } else {
+                LOG.warn("Job {} lost its lock while running", job);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the last runs of a job, on any node.
+     *
+     * @param job the name of the job.
+     * @return the last runs of the job, most recent first.
+     */
+    public List<ClusterJobRun> getHistory(String job) {
+        return getHistoryList(job).readAll();
+    }
+
+    private void countSkipped(String job, String reason) {
+        Counter.builder("jobs.skipped")
+            .description("Runs of cluster jobs skipped, as another node was running them or had just run them")
+            .tag("job", job)
+            .tag("reason", reason)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    private void markRan(RBucket<String> ran) {
+        // Set before the lock is released, so that a node getting the lock next sees it
+        try {
+            ran.set(node, lockAtLeastFor);
+        } catch (RuntimeException e) {
+            LOG.warn("Run of job {} could not be marked : {}", ran.getName(), e.getMessage());
+        }
+    }
+
+    private void record(ClusterJobRun run) {
+        try {
+            RList<ClusterJobRun> history = getHistoryList(run.job());
+            history.add(0, run);
+            history.trim(0, historySize - 1);
+        } catch (RuntimeException e) {
+            LOG.warn("Run of job {} could not be recorded : {}", run.job(), e.getMessage());
+        }
+    }
+
+    private RList<ClusterJobRun> getHistoryList(String job) {
+        return redissonClient.getList(HISTORY_PREFIX + job, historyCodec);
+    }
+}
@@ -0,0 +1,115 @@
+package io.hank.twentyonepoints.scheduling;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates the monthly partitions of the {@code points}, {@code weight} and {@code blood_pressure} tables ahead of time.
+ * <p>
+ * Those tables are only partitioned on PostgreSQL, and the job does nothing on other databases. Rows of a month beyond
+ * the last partition are kept in the default partition of their table until the partition of their month is created.
+ * <p>
+ * The primary keys of the partitioned tables include their partition column, and the statements by id alone probe the
+ * primary key index of every partition: their cost grows with the number of months, while the queries bounded by
+ * date, such as the ones of the dashboard, only read the partitions of their period.
+ * <p>
+ * Creating a partition is idempotent, so the job does not fence its statements with the token of its lock: a node
+ * which lost the lock while running finds the partitions created by the other one and skips them.
+ */
+@Component
+public class TimePartitionJob {
+
+    static final String JOB = "time-partitions";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimePartitionJob.class);
+
+    private static final Map<String, String> PARTITION_COLUMNS = Map.of(
+        "points",
+        "date",
+        "weight",
+        "timestamp",
+        "blood_pressure",
+        "timestamp"
+    );
+
+    private final ClusterJobRunner clusterJobRunner;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int monthsAhead;
+
+    private final boolean partitioned;
+
+    public TimePartitionJob(
+        ClusterJobRunner clusterJobRunner,
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.clusterJobRunner = clusterJobRunner;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = applicationProperties.getPartitions().getMonthsAhead();
+        this.partitioned = isPostgreSQL(dataSource);
+    }
+
+    @Scheduled(cron = "${application.partitions.cron:0 30 2 * * *}")
+    public void createPartitionsAhead() {
+        if (partitioned) {
+            clusterJobRunner.run(JOB, execution -> createPartitions(LocalDate.now(ZoneOffset.UTC)));
+        }
+    }
+
+    /**
+     * Create the missing partitions, from the month of a day to {@code application.partitions.months-ahead} months
+     * after it.
+     *
+     * @param today the current day.
+     * @return the number of partitions created.
+     */
+    public int createPartitions(LocalDate today) {
+        LocalDate fromMonth = today.withDayOfMonth(1);
+        LocalDate toMonth = fromMonth.plusMonths(monthsAhead);
+        int created = PARTITION_COLUMNS.entrySet()
+            .stream()
+            .mapToInt(table ->
+                transactionTemplate.execute(status ->
+                    jdbcTemplate.queryForObject(
+                        "select create_monthly_partitions(?, ?, ?, ?)",
+                        Integer.class,
+                        table.getKey(),
+                        table.getValue(),
+                        fromMonth,
+                        toMonth
+                    )
+                )
+            )
+            .sum();
+        LOG.info("Created {} partitions up to {}", created, toMonth);
+        return created;
+    }
+
+    private static boolean isPostgreSQL(DataSource dataSource) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            LOG.warn("Could not tell whether the database is partitioned : {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Jobs running on a single node of the cluster at a time
+ */
+package io.hank.twentyonepoints.scheduling;
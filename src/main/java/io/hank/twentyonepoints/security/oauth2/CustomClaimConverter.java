@@ -30,6 +30,11 @@ import org.springframework.web.context.request.ServletRequestAttributes;
  */
 public class CustomClaimConverter implements Converter<Map<String, Object>, Map<String, Object>> {
 
+    /**
+     * Name of the node-local cache of the user information, keyed by subject.
+     */
+    public static final String USERS_CACHE = "oauth2Users";
+
     private final BearerTokenResolver bearerTokenResolver = new DefaultBearerTokenResolver();
 
     private final MappedJwtClaimSetConverter delegate = MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
@@ -51,6 +56,19 @@ public class CustomClaimConverter implements Converter<Map<String, Object>, Map<
         this.restTemplate = restTemplate;
     }
 
+    /**
+     * Evict the cached information of a user, so that it is retrieved again on its next request.
+     *
+     * @param subject the subject of the user, or {@code null} to evict all the users.
+     */
+    public void evictUser(String subject) {
+        if (subject == null) {
+            users.invalidateAll();
+        } else {
+            users.invalidate(subject);
+        }
+    }
+
     public Map<String, Object> convert(Map<String, Object> claims) {
         Map<String, Object> convertedClaims = this.delegate.convert(claims);
         // Only look up user information if identity claims are missing
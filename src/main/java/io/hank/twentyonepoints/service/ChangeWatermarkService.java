@@ -0,0 +1,179 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping track of when entities were last changed, so that conditional requests
+ * can be answered without loading anything from the database.
+ * <p>
+ * Watermarks live in the distributed cache, one per entity and one per entity type for list
+ * endpoints. They are only moved forward once the changing transaction has committed, so a
+ * reader can never pair a new watermark with old data. A missing watermark is initialized to
+ * the current time, which at worst costs a client one full response.
+ * <p>
+ * Watermarks follow the {@link EntityChangeEvent} published for every change.
+ * <p>
+ * They also tell whether a read replica can have missed a change: data changed more recently than the lag bound of the
+ * replica is read from the primary, see {@link #routeReads(Instant)}.
+ */
+@Service
+public class ChangeWatermarkService {
+
+    public static final String CHANGE_WATERMARKS_CACHE = "changeWatermarks";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeWatermarkService.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final CacheManager cacheManager;
+
+    private final Duration replicaMaxLag;
+
+    public ChangeWatermarkService(CacheManager cacheManager, ApplicationProperties applicationProperties) {
+        this.cacheManager = cacheManager;
+        this.replicaMaxLag = applicationProperties.getDatasource().getReplica().getMaxLag();
+    }
+
+    /**
+     * Get the watermark of a single entity.
+     *
+     * @param entityName the name of the entity type.
+     * @param id the id of the entity.
+     * @return the instant the entity was last changed, or an upper bound of it.
+     */
+    public Instant getEntityWatermark(String entityName, Object id) {
+        return getOrInitialize(entityKey(entityName, id));
+    }
+
+    /**
+     * Get the watermark of all the entities of a type, as used by list endpoints.
+     *
+     * @param entityName the name of the entity type.
+     * @return the instant any entity of this type was last changed, or an upper bound of it.
+     */
+    public Instant getListWatermark(String entityName) {
+        return getOrInitialize(entityName);
+    }
+
+    /**
+     * Route the reads of the current read-only transaction by the watermark of the data it reads. If the data changed
+     * within the lag bound of the read replica, the replica may not have the change yet, and the transaction reads from
+     * the primary, still in a read-only session: a response never pairs a new watermark with old rows. Otherwise it
+     * reads from the replica, when one is configured.
+     * <p>
+     * Must be called before the transaction runs its first statement, which is when its connection is taken.
+     *
+     * @param watermark the watermark of the data the transaction reads.
+     */
+    public void routeReads(Instant watermark) {
+        if (
+            !TransactionSynchronizationManager.isSynchronizationActive() ||
+            !watermark.isAfter(Instant.now().minus(replicaMaxLag)) ||
+            PRIMARY_READS.get() != null
+        ) {
+            return;
+        }
+        PRIMARY_READS.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    PRIMARY_READS.remove();
+                }
+            }
+        );
+    }
+
+    /**
+     * Tell whether the current transaction must read from the primary, even if it is read-only.
+     *
+     * @return {@code true} if {@link #routeReads(Instant)} found the data it reads too recent for the replica.
+     */
+    public static boolean isPrimaryReadRequired() {
+        return PRIMARY_READS.get() != null;
+    }
+
+    /**
+     * Record a change of an entity. When called inside a transaction, the watermarks are only
+     * moved once it has committed.
+     *
+     * @param entityName the name of the entity type.
+     * @param id the id of the changed entity.
+     */
+    public void markChanged(String entityName, Object id) {
+        markAllChanged(entityName, Collections.singletonList(id));
+    }
+
+    /**
+     * Record a change of several entities of a type, for changes made in bulk without an {@link EntityChangeEvent}
+     * per entity. When called inside a transaction, the watermarks are only moved once it has committed.
+     *
+     * @param entityName the name of the entity type.
+     * @param ids the ids of the changed entities.
+     */
+    public void markAllChanged(String entityName, Collection<?> ids) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        advance(entityName, ids);
+                    }
+                }
+            );
+        } else {
+            advance(entityName, ids);
+        }
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        markChanged(event.entityType(), event.entityId());
+    }
+
+    private void advance(String entityName, Collection<?> ids) {
+        LOG.debug("Advancing change watermark of {} {}", entityName, ids);
+        Instant now = Instant.now();
+        Cache cache = getCache();
+        for (Object id : ids) {
+            cache.put(entityKey(entityName, id), now);
+        }
+        cache.put(entityName, now);
+    }
+
+    private Instant getOrInitialize(String key) {
+        Cache cache = getCache();
+        Instant watermark = cache.get(key, Instant.class);
+        if (watermark != null) {
+            return watermark;
+        }
+        Instant now = Instant.now();
+        Cache.ValueWrapper existing = cache.putIfAbsent(key, now);
+        if (existing != null && existing.get() instanceof Instant current) {
+            return current;
+        }
+        return now;
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CHANGE_WATERMARKS_CACHE));
+    }
+
+    private static String entityKey(String entityName, Object id) {
+        return entityName + ":" + id;
+    }
+}
@@ -0,0 +1,226 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.WeightRepository;
+import io.hank.twentyonepoints.repository.projection.PreferencesSummary;
+import io.hank.twentyonepoints.service.dto.DashboardDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service building the dashboard of a user.
+ * <p>
+ * Each part of the dashboard is read by its own query, in its own read-only transaction, and the queries run
+ * concurrently on a small executor of their own, sized by {@code application.dashboard.pool-size}, so that they neither
+ * wait behind nor delay the {@code @Async} tasks. They are given the login of the user, as the security context of the
+ * request is not available on the executor threads.
+ * <p>
+ * A dashboard never waits on a query which may not run: a query refused by the full executor runs on the request
+ * thread right away, and so does a query still queued after {@code application.dashboard.query-timeout}. A query
+ * already running by then is bounded by the timeout of its transaction. Both fallbacks are counted in
+ * {@code dashboard.queries.sequential}, by reason.
+ */
+@Service
+public class DashboardService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardService.class);
+
+    private final PointsRepository pointsRepository;
+
+    private final WeightRepository weightRepository;
+
+    private final BloodPressureRepository bloodPressureRepository;
+
+    private final PreferencesRepository preferencesRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ThreadPoolTaskExecutor queryExecutor;
+
+    private final Duration queryTimeout;
+
+    private final Counter rejectedQueries;
+
+    private final Counter timedOutQueries;
+
+    public DashboardService(
+        PointsRepository pointsRepository,
+        WeightRepository weightRepository,
+        BloodPressureRepository bloodPressureRepository,
+        PreferencesRepository preferencesRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.pointsRepository = pointsRepository;
+        this.weightRepository = weightRepository;
+        this.bloodPressureRepository = bloodPressureRepository;
+        this.preferencesRepository = preferencesRepository;
+        ApplicationProperties.Dashboard dashboard = applicationProperties.getDashboard();
+        this.queryTimeout = dashboard.getQueryTimeout();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout((int) Math.max(1, queryTimeout.toSeconds()));
+        this.queryExecutor = new ThreadPoolTaskExecutor();
+        this.queryExecutor.setCorePoolSize(dashboard.getPoolSize());
+        this.queryExecutor.setMaxPoolSize(dashboard.getPoolSize());
+        this.queryExecutor.setQueueCapacity(dashboard.getQueueCapacity());
+        this.queryExecutor.setThreadNamePrefix("dashboard-");
+        this.queryExecutor.initialize();
+        this.rejectedQueries = sequentialQueries(meterRegistry, "rejected");
+        this.timedOutQueries = sequentialQueries(meterRegistry, "timeout");
+    }
+
+    /**
+     * Get the dashboard of a user.
+     *
+     * @param login the login of the user.
+     * @return the dashboard of the user.
+     */
+    public DashboardDTO getDashboard(String login) {
+        LOG.debug("Request to get the dashboard of {}", login);
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        DashboardQuery<Long> weekPoints = new DashboardQuery<>(() ->
+            pointsRepository.sumPointsByUserLoginAndDateBetween(login, weekStart, today)
+        );
+        DashboardQuery<Weight> latestWeight = new DashboardQuery<>(() ->
+            weightRepository.findFirstByUserLoginOrderByTimestampDesc(login).orElse(null)
+        );
+        DashboardQuery<BloodPressure> latestBloodPressure = new DashboardQuery<>(() ->
+            bloodPressureRepository.findFirstByUserLoginOrderByTimestampDesc(login).orElse(null)
+        );
+        // Cached by login: a hit runs no query
+        PreferencesSummary preferences = preferencesRepository.findSummaryByUserLogin(login).orElse(null);
+        awaitQueries(weekPoints, latestWeight, latestBloodPressure);
+        Long points = weekPoints.get();
+        Weight weight = latestWeight.get();
+        BloodPressure bloodPressure = latestBloodPressure.get();
+
+        Integer weeklyGoal = preferences != null ? preferences.weeklyGoal() : null;
+        Integer goalProgress = weeklyGoal != null && weeklyGoal > 0 ? (int) (points * 100 / weeklyGoal) : null;
+        return new DashboardDTO(weekStart, points, weeklyGoal, goalProgress, weight, bloodPressure, preferences);
+    }
+
+    /**
+     * Wait for the queries of a dashboard until the query timeout, running on the calling thread the ones refused by the
+     * executor right away, and the ones it has not started by then.
+     */
+    private void awaitQueries(DashboardQuery<?>... queries) {
+        long deadline = System.nanoTime() + queryTimeout.toNanos();
+        for (DashboardQuery<?> query : queries) {
+            if (query.result == null) {
+                query.runHere();
+            }
+        }
+        CompletableFuture<?>[] submitted = Arrays.stream(queries)
+            .map(query -> query.result)
+            .filter(Objects::nonNull)
+            .toArray(CompletableFuture<?>[]::new);
+        try {
+            CompletableFuture.allOf(submitted).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Queries still queued are run below, and failures are rethrown by their own result
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the dashboard queries", e);
+        }
+        for (DashboardQuery<?> query : queries) {
+            if (query.result != null && query.claimed.compareAndSet(false, true)) {
+                query.result.cancel(false);
+                timedOutQueries.increment();
+                query.runHere();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        queryExecutor.shutdown();
+    }
+
+    private static Counter sequentialQueries(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("dashboard.queries.sequential")
+            .description("Dashboard queries run on the request thread rather than concurrently")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    /**
+     * A query of a dashboard, run by whichever of the query executor and the request thread claims it first.
+     */
+    private final class DashboardQuery<T> {
+
+        private final Supplier<T> query;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private final CompletableFuture<T> result;
+
+        private T localResult;
+
+        private boolean ranHere;
+
+        private DashboardQuery(Supplier<T> query) {
+            this.query = query;
+            CompletableFuture<T> submitted;
+            try {
+                submitted = CompletableFuture.supplyAsync(() -> claimed.compareAndSet(false, true) ? run() : null, queryExecutor);
+            } catch (RejectedExecutionException e) {
+                rejectedQueries.increment();
+                submitted = null;
+            }
+            this.result = submitted;
+        }
+
+        private void runHere() {
+            localResult = run();
+            ranHere = true;
+        }
+
+        /**
+         * Get the result of the query, waiting for it if it runs on the executor: a running query is bounded by the
+         * timeout of its transaction.
+         */
+        private T get() {
+            if (ranHere) {
+                return localResult;
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException("Dashboard query failed", e);
+            }
+        }
+
+        private T run() {
+            return readOnlyTransaction.execute(status -> query.get());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service publishing the changes made to entities.
+ * <p>
+ * Changes are first published as {@link EntityChangeEvent} application events, then sent to Kafka
+ * once the changing transaction has committed, so that no rolled back change is ever seen downstream.
+ * Events are keyed by user, which keeps the changes of a user in order on a single partition.
+ */
+@Service
+public class EntityChangeService {
+
+    public static final String ENTITY_CHANGES_BINDING_NAME = "entityChanges-out-0";
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityChangeService.class);
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final StreamBridge streamBridge;
+
+    public EntityChangeService(ApplicationEventPublisher applicationEventPublisher, StreamBridge streamBridge) {
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.streamBridge = streamBridge;
+    }
+
+    /**
+     * Record a change of an entity.
+     *
+     * @param entityType the name of the entity type.
+     * @param entityId the id of the entity.
+     * @param action what happened to the entity.
+     * @param user the user owning the entity, if any.
+     */
+    public void recordChange(String entityType, Long entityId, EntityChangeEvent.Action action, User user) {
+        applicationEventPublisher.publishEvent(
+            new EntityChangeEvent(entityType, entityId, action, user != null ? user.getId() : null, Instant.now())
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void sendToKafka(EntityChangeEvent event) {
+        LOG.debug("Sending entity change event : {}", event);
+        MessageBuilder<EntityChangeEvent> message = MessageBuilder.withPayload(event);
+        if (event.userId() != null) {
+            message.setHeader(KafkaHeaders.KEY, event.userId().getBytes(StandardCharsets.UTF_8));
+        }
+        if (!streamBridge.send(ENTITY_CHANGES_BINDING_NAME, message.build())) {
+            LOG.warn("Entity change event could not be sent : {}", event);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package io.hank.twentyonepoints.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.HealthRecordArchive;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.HealthRecordArchiveRepository;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.repository.WeightRepository;
+import io.hank.twentyonepoints.repository.search.BloodPressureSearchRepository;
+import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import io.hank.twentyonepoints.repository.search.WeightSearchRepository;
+import io.hank.twentyonepoints.scheduling.ClusterJobRunner;
+import io.hank.twentyonepoints.service.dto.ExportDTO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service moving the health records past the retention period out of the hot tables and search indices, into the
+ * {@link HealthRecordArchive}, and reading them back for the export of a user.
+ * <p>
+ * Records are archived in chunks of {@code application.retention.chunk-size}, each in its own transaction, as one
+ * gzipped JSON archive per user and chunk. A run stops after {@code application.retention.max-chunks-per-run} chunks,
+ * or as soon as it loses its cluster lock, and the next run carries on. Each chunk is fenced with the token of the lock,
+ * so that a node which lost the lock while archiving a chunk cannot commit it after the node now holding the lock.
+ * <p>
+ * Archived rows are deleted in bulk, without an entity change event each: once a chunk has committed, the change
+ * watermarks of its records and of their lists are moved forward, so that no client keeps a copy listing them, and the
+ * records are removed from the search index. A chunk rolled back leaves both untouched.
+ */
+@Service
+public class HealthRecordArchiveService {
+
+    static final String JOB = "health-record-retention";
+
+    private static final Logger LOG = LoggerFactory.getLogger(HealthRecordArchiveService.class);
+
+    private final HealthRecordArchiveRepository healthRecordArchiveRepository;
+
+    private final PointsRepository pointsRepository;
+
+    private final WeightRepository weightRepository;
+
+    private final BloodPressureRepository bloodPressureRepository;
+
+    private final UserRepository userRepository;
+
+    private final ClusterJobRunner clusterJobRunner;
+
+    private final ChangeWatermarkService changeWatermarkService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper archiveMapper;
+
+    private final ApplicationProperties.Retention retention;
+
+    private final List<ArchivedType<?>> archivedTypes;
+
+    public HealthRecordArchiveService(
+        HealthRecordArchiveRepository healthRecordArchiveRepository,
+        PointsRepository pointsRepository,
+        PointsSearchRepository pointsSearchRepository,
+        WeightRepository weightRepository,
+        WeightSearchRepository weightSearchRepository,
+        BloodPressureRepository bloodPressureRepository,
+        BloodPressureSearchRepository bloodPressureSearchRepository,
+        UserRepository userRepository,
+        ClusterJobRunner clusterJobRunner,
+        ChangeWatermarkService changeWatermarkService,
+        PlatformTransactionManager transactionManager,
+        ObjectMapper objectMapper,
+        ApplicationProperties applicationProperties
+    ) {
+        this.healthRecordArchiveRepository = healthRecordArchiveRepository;
+        this.pointsRepository = pointsRepository;
+        this.weightRepository = weightRepository;
+        this.bloodPressureRepository = bloodPressureRepository;
+        this.userRepository = userRepository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.changeWatermarkService = changeWatermarkService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // The user of an archive is its userId column, so it is left out of the archived records
+        this.archiveMapper = objectMapper
+            .copy()
+            .addMixIn(Points.class, WithoutUser.class)
+            .addMixIn(Weight.class, WithoutUser.class)
+            .addMixIn(BloodPressure.class, WithoutUser.class);
+        this.retention = applicationProperties.getRetention();
+        this.archivedTypes = List.of(
+            new ArchivedType<>(
+                "points",
+                "points",
+                pointsRepository::findAllByDateBeforeOrderByUserIdAscDateAsc,
+                Points::getId,
+                Points::getUser,
+                Points::getDate,
+                pointsRepository::deleteAllByIdInBatch,
+                pointsSearchRepository::deleteFromIndexByIds
+            ),
+            new ArchivedType<>(
+                "weight",
+                "weight",
+                (cutoff, limit) ->
+                    weightRepository.findAllByTimestampBeforeOrderByUserIdAscTimestampAsc(cutoff.atStartOfDay(ZoneOffset.UTC), limit),
+                Weight::getId,
+                Weight::getUser,
+                weight -> weight.getTimestamp().withZoneSameInstant(ZoneOffset.UTC).toLocalDate(),
+                weightRepository::deleteAllByIdInBatch,
+                weightSearchRepository::deleteFromIndexByIds
+            ),
+            new ArchivedType<>(
+                "blood_pressure",
+                "bloodPressure",
+                (cutoff, limit) ->
+                    bloodPressureRepository.findAllByTimestampBeforeOrderByUserIdAscTimestampAsc(
+                        cutoff.atStartOfDay(ZoneOffset.UTC),
+                        limit
+                    ),
+                BloodPressure::getId,
+                BloodPressure::getUser,
+                bloodPressure -> bloodPressure.getTimestamp().withZoneSameInstant(ZoneOffset.UTC).toLocalDate(),
+                bloodPressureRepository::deleteAllByIdInBatch,
+                bloodPressureSearchRepository::deleteFromIndexByIds
+            )
+        );
+    }
+
+    /**
+     * Archive the records older than {@code application.retention.years}, on a single node of the cluster.
+     */
+    @Scheduled(cron = "${application.retention.cron:0 0 3 * * *}")
+    public void archiveExpiredRecords() {
+        if (!retention.isEnabled()) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusYears(retention.getYears());
+        clusterJobRunner.run(JOB, execution -> archiveRecordsBefore(cutoff, execution::isLockHeld, execution::fence));
+    }
+
+    /**
+     * Archive the records dated before a day.
+     *
+     * @param cutoff the first day of the records to keep.
+     * @param proceed checked before each chunk, stopping the archival when it turns false.
+     * @return the number of records archived.
+     */
+    public int archiveRecordsBefore(LocalDate cutoff, BooleanSupplier proceed) {
+        return archiveRecordsBefore(cutoff, proceed, () -> {});
+    }
+
+    /**
+     * Archive the records dated before a day, guarding each chunk.
+     *
+     * @param cutoff the first day of the records to keep.
+     * @param proceed checked before each chunk, stopping the archival when it turns false.
+     * @param fence run first in the transaction of each chunk, rolling it back when it throws.
+     * @return the number of records archived.
+     * @see io.hank.twentyonepoints.scheduling.ClusterJobExecution#fence()
+     */
+    public int archiveRecordsBefore(LocalDate cutoff, BooleanSupplier proceed, Runnable fence) {
+        int archived = 0;
+        int chunks = 0;
+        for (ArchivedType<?> archivedType : archivedTypes) {
+            int count;
+            do {
+                if (chunks >= retention.getMaxChunksPerRun() || !proceed.getAsBoolean()) {
+                    LOG.info("Archived {} records before {}, stopping before the end", archived, cutoff);
+                    return archived;
+                }
+                count = transactionTemplate.execute(status -> {
+                    fence.run();
+                    return archiveChunk(archivedType, cutoff);
+                });
+                archived += count;
+                chunks++;
+            } while (count == retention.getChunkSize());
+        }
+        LOG.info("Archived {} records before {}", archived, cutoff);
+        return archived;
+    }
+
+    /**
+     * Get all the health records of a user, from the hot tables and from the archive.
+     *
+     * @param login the login of the user.
+     * @return the records of the user.
+     */
+    @Transactional(readOnly = true)
+    public ExportDTO getExport(String login) {
+        LOG.debug("Request to export the health records of {}", login);
+        String userId = userRepository.findOneByLogin(login).map(User::getId).orElse(null);
+        List<Points> points = readArchives(userId, "points", Points.class);
+        points.addAll(pointsRepository.findAllByUserLoginOrderByDateAsc(login));
+        List<Weight> weights = readArchives(userId, "weight", Weight.class);
+        weights.addAll(weightRepository.findAllByUserLoginOrderByTimestampAsc(login));
+        List<BloodPressure> bloodPressures = readArchives(userId, "blood_pressure", BloodPressure.class);
+        bloodPressures.addAll(bloodPressureRepository.findAllByUserLoginOrderByTimestampAsc(login));
+        return new ExportDTO(points, weights, bloodPressures);
+    }
+
+    private <T> int archiveChunk(ArchivedType<T> archivedType, LocalDate cutoff) {
+        List<T> records = archivedType.expired().apply(cutoff, Limit.of(retention.getChunkSize()));
+        if (records.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<T>> recordsByUser = new LinkedHashMap<>();
+        for (T record : records) {
+            User user = archivedType.user().apply(record);
+            recordsByUser.computeIfAbsent(user != null ? user.getId() : null, userId -> new ArrayList<>()).add(record);
+        }
+        Instant archivedAt = Instant.now();
+        recordsByUser.forEach((userId, userRecords) ->
+            healthRecordArchiveRepository.save(
+                new HealthRecordArchive()
+                    .entityType(archivedType.name())
+                    .userId(userId)
+                    .fromDate(userRecords.stream().map(archivedType.date()).min(Comparator.naturalOrder()).orElseThrow())
+                    .toDate(userRecords.stream().map(archivedType.date()).max(Comparator.naturalOrder()).orElseThrow())
+                    .recordCount(userRecords.size())
+                    .payload(compress(userRecords))
+                    .archivedAt(archivedAt)
+            )
+        );
+        List<Long> ids = records.stream().map(archivedType.id()).toList();
+        archivedType.deleteRows().accept(ids);
+        changeWatermarkService.markAllChanged(archivedType.entityName(), ids);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteDocuments(archivedType, ids);
+                }
+            }
+        );
+        LOG.debug("Archived {} {} records of {} users", records.size(), archivedType.name(), recordsByUser.size());
+        return records.size();
+    }
+
+    private void deleteDocuments(ArchivedType<?> archivedType, List<Long> ids) {
+        try {
+            archivedType.deleteDocuments().accept(ids);
+        } catch (RuntimeException e) {
+            // The rows are archived already: the documents stay searchable until the index is rebuilt
+            LOG.warn("Could not remove {} archived {} records from the search index", ids.size(), archivedType.name(), e);
+        }
+    }
+
+    private <T> List<T> readArchives(String userId, String entityType, Class<T> type) {
+        List<T> records = new ArrayList<>();
+        if (userId == null) {
+            return records;
+        }
+        JavaType listType = archiveMapper.getTypeFactory().constructCollectionType(List.class, type);
+        List<HealthRecordArchive> archives = healthRecordArchiveRepository.findAllByUserIdAndEntityTypeOrderByFromDateAsc(
+            userId,
+            entityType
+        );
+        for (HealthRecordArchive archive : archives) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+                List<T> archived = archiveMapper.readValue(in, listType);
+                records.addAll(archived);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read the health record archive " + archive.getId(), e);
+            }
+        }
+        return records;
+    }
+
+    private byte[] compress(List<?> records) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            archiveMapper.writeValue(out, records);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress the archived records", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @JsonIgnoreProperties({ "user" })
+    private abstract static class WithoutUser {}
+
+    /**
+     * How to archive the records of an entity: {@code name} is the entity type of its archives, and {@code entityName}
+     * the one of its change events and watermarks.
+     */
+    private record ArchivedType<T>(
+        String name,
+        String entityName,
+        BiFunction<LocalDate, Limit, List<T>> expired,
+        Function<T, Long> id,
+        Function<T, User> user,
+        Function<T, LocalDate> date,
+        Consumer<List<Long>> deleteRows,
+        Consumer<List<Long>> deleteDocuments
+    ) {}
+}
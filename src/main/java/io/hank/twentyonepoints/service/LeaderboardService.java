@@ -0,0 +1,138 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import io.hank.twentyonepoints.service.dto.LeaderboardEntryDTO;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.client.protocol.ScoredEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service maintaining the weekly leaderboard of the users who opted in from their {@link io.hank.twentyonepoints.domain.Preferences}.
+ * <p>
+ * The leaderboard of each ISO week is a Redis sorted set of logins scored by their points of the week, shared by every
+ * node. The score of a user is refreshed once a change of their points or preferences has committed, from the sum of
+ * their points of the week, so it converges even if an update is missed. Reading the top of the board or the rank of a
+ * user takes O(log n). A new week starts with an empty board, and old boards expire on their own.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final String KEY_PREFIX = "leaderboard:";
+
+    private final RedissonClient redissonClient;
+
+    private final PointsRepository pointsRepository;
+
+    private final PreferencesRepository preferencesRepository;
+
+    private final UserRepository userRepository;
+
+    public LeaderboardService(
+        RedissonClient redissonClient,
+        PointsRepository pointsRepository,
+        PreferencesRepository preferencesRepository,
+        UserRepository userRepository
+    ) {
+        this.redissonClient = redissonClient;
+        this.pointsRepository = pointsRepository;
+        this.preferencesRepository = preferencesRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Not read-only, so the score is read from the primary the change was just committed to, not from a lagging replica
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.userId() == null || !("points".equals(event.entityType()) || "preferences".equals(event.entityType()))) {
+            return;
+        }
+        try {
+            refresh(event.userId());
+        } catch (RuntimeException e) {
+            LOG.warn("Leaderboard score of user {} could not be refreshed : {}", event.userId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the score of a user on the leaderboard of the current week, removing them if they did not opt in.
+     *
+     * @param userId the id of the user.
+     */
+    @Transactional(readOnly = true)
+    public void refresh(String userId) {
+        String login = userRepository.findById(userId).map(User::getLogin).orElse(null);
+        if (login == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        RScoredSortedSet<String> leaderboard = getLeaderboard(today);
+        if (!preferencesRepository.existsByUserIdAndLeaderboardOptInTrue(userId)) {
+            leaderboard.remove(login);
+            return;
+        }
+        LocalDate monday = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long points = pointsRepository.sumPointsByUserIdAndDateBetween(userId, monday, monday.plusDays(6));
+        LOG.debug("Setting leaderboard score of {} to {}", login, points);
+        leaderboard.add(points, login);
+        // Keep the board of a week readable for a week after it ended
+        leaderboard.expire(monday.plusWeeks(2).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Get the top of the leaderboard of the current week.
+     *
+     * @param size the number of users to get.
+     * @return the best ranked users, best first.
+     */
+    public List<LeaderboardEntryDTO> getTop(int size) {
+        List<ScoredEntry<String>> entries = new ArrayList<>(
+            getLeaderboard(LocalDate.now(ZoneId.systemDefault())).entryRangeReversed(0, size - 1)
+        );
+        return IntStream.range(0, entries.size())
+            .mapToObj(i -> new LeaderboardEntryDTO(i + 1L, entries.get(i).getValue(), entries.get(i).getScore().longValue()))
+            .toList();
+    }
+
+    /**
+     * Get the rank of a user on the leaderboard of the current week.
+     *
+     * @param login the login of the user.
+     * @return the rank of the user, or empty if they are not on the leaderboard.
+     */
+    public Optional<LeaderboardEntryDTO> getRank(String login) {
+        RScoredSortedSet<String> leaderboard = getLeaderboard(LocalDate.now(ZoneId.systemDefault()));
+        Integer rank = leaderboard.revRank(login);
+        Double points = leaderboard.getScore(login);
+        if (rank == null || points == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new LeaderboardEntryDTO(rank + 1L, login, points.longValue()));
+    }
+
+    private RScoredSortedSet<String> getLeaderboard(LocalDate date) {
+        String week = String.format("%d-W%02d", date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        return redissonClient.getScoredSortedSet(KEY_PREFIX + week, StringCodec.INSTANCE);
+    }
+}
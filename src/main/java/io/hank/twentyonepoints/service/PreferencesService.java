@@ -0,0 +1,83 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.projection.PreferencesSummary;
+import io.hank.twentyonepoints.security.SecurityUtils;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service reading the preferences of the users from the {@link PreferencesRepository#PREFERENCES_BY_LOGIN_CACHE}
+ * cache, and keeping that cache in line with the changes of the preferences.
+ * <p>
+ * The cache is cleared on any change of preferences, rather than evicting a single login: preferences can be moved
+ * from a user to another, and their change events only tell the new owner. Preferences change seldom, next to the
+ * dashboards reading them.
+ * <p>
+ * It is cleared both before and after the change commits. A read missing the cache while the change commits can still
+ * cache the previous preferences after the second clearing, so the cache entries also expire after
+ * {@code application.dashboard.preferences-time-to-live}, 5 minutes by default: that is the longest the previous
+ * preferences of a user can be served after a change.
+ */
+@Service
+public class PreferencesService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PreferencesService.class);
+
+    private static final String ENTITY_NAME = "preferences";
+
+    private final PreferencesRepository preferencesRepository;
+
+    private final CacheManager cacheManager;
+
+    public PreferencesService(PreferencesRepository preferencesRepository, CacheManager cacheManager) {
+        this.preferencesRepository = preferencesRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Get the preferences of a user.
+     *
+     * @param login the login of the user.
+     * @return the preferences of the user, if they have some.
+     */
+    public Optional<PreferencesSummary> getPreferences(String login) {
+        return preferencesRepository.findSummaryByUserLogin(login);
+    }
+
+    /**
+     * Get the preferences of the current user.
+     *
+     * @return the preferences of the current user, if they have some.
+     */
+    public Optional<PreferencesSummary> getCurrentUserPreferences() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(this::getPreferences);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeEntityChangeCommit(EntityChangeEvent event) {
+        if (ENTITY_NAME.equals(event.entityType())) {
+            LOG.debug("Clearing the cached preferences before {} commits", event);
+            clearCache();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (ENTITY_NAME.equals(event.entityType())) {
+            LOG.debug("Clearing the cached preferences after {}", event);
+            clearCache();
+        }
+    }
+
+    private void clearCache() {
+        Objects.requireNonNull(cacheManager.getCache(PreferencesRepository.PREFERENCES_BY_LOGIN_CACHE)).clear();
+    }
+}
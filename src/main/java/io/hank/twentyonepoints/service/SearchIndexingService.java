@@ -0,0 +1,85 @@
+package io.hank.twentyonepoints.service;
+
+import io.hank.twentyonepoints.repository.search.BloodPressureSearchRepository;
+import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import io.hank.twentyonepoints.repository.search.PreferencesSearchRepository;
+import io.hank.twentyonepoints.repository.search.WeightSearchRepository;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service applying batches of {@link EntityChangeEvent} to the search index, when indexing is done from the
+ * entity change events rather than inline.
+ * <p>
+ * Only the last change of each entity in a batch is applied, and the current state of all the changed entities
+ * of a type is indexed in a single bulk request. Any failure is rethrown, so that the batch is retried.
+ */
+@Service
+public class SearchIndexingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexingService.class);
+
+    private record Indexer(Consumer<Collection<Long>> index, Consumer<Collection<Long>> delete) {}
+
+    private final Map<String, Indexer> indexers;
+
+    public SearchIndexingService(
+        PointsSearchRepository pointsSearchRepository,
+        WeightSearchRepository weightSearchRepository,
+        BloodPressureSearchRepository bloodPressureSearchRepository,
+        PreferencesSearchRepository preferencesSearchRepository
+    ) {
+        this.indexers = Map.of(
+            "points",
+            new Indexer(pointsSearchRepository::bulkIndex, pointsSearchRepository::deleteFromIndexByIds),
+            "weight",
+            new Indexer(weightSearchRepository::bulkIndex, weightSearchRepository::deleteFromIndexByIds),
+            "bloodPressure",
+            new Indexer(bloodPressureSearchRepository::bulkIndex, bloodPressureSearchRepository::deleteFromIndexByIds),
+            "preferences",
+            new Indexer(preferencesSearchRepository::bulkIndex, preferencesSearchRepository::deleteFromIndexByIds)
+        );
+    }
+
+    /**
+     * Apply a batch of entity changes to the search index.
+     *
+     * @param events the entity changes, in the order they were made.
+     */
+    public void apply(List<EntityChangeEvent> events) {
+        LOG.debug("Request to apply {} entity changes to the search index", events.size());
+        Map<String, Map<Long, EntityChangeEvent.Action>> lastActions = new HashMap<>();
+        for (EntityChangeEvent event : events) {
+            lastActions.computeIfAbsent(event.entityType(), entityType -> new LinkedHashMap<>()).put(event.entityId(), event.action());
+        }
+        lastActions.forEach((entityType, actions) -> {
+            Indexer indexer = indexers.get(entityType);
+            if (indexer == null) {
+                LOG.warn("Ignoring changes of {}, it is not indexed", entityType);
+                return;
+            }
+            List<Long> deleted = actions
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() == EntityChangeEvent.Action.DELETED)
+                .map(Map.Entry::getKey)
+                .toList();
+            List<Long> changed = actions
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() != EntityChangeEvent.Action.DELETED)
+                .map(Map.Entry::getKey)
+                .toList();
+            indexer.index().accept(changed);
+            indexer.delete().accept(deleted);
+        });
+    }
+}
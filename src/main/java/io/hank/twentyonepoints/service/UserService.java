@@ -1,5 +1,6 @@
 package io.hank.twentyonepoints.service;
 
+import io.hank.twentyonepoints.broker.CacheInvalidationBus;
 import io.hank.twentyonepoints.config.Constants;
 import io.hank.twentyonepoints.domain.Authority;
 import io.hank.twentyonepoints.domain.User;
@@ -7,6 +8,7 @@ import io.hank.twentyonepoints.repository.AuthorityRepository;
 import io.hank.twentyonepoints.repository.UserRepository;
 import io.hank.twentyonepoints.repository.search.UserSearchRepository;
 import io.hank.twentyonepoints.security.SecurityUtils;
+import io.hank.twentyonepoints.security.oauth2.CustomClaimConverter;
 import io.hank.twentyonepoints.service.dto.AdminUserDTO;
 import io.hank.twentyonepoints.service.dto.UserDTO;
 import java.time.Instant;
@@ -41,16 +43,20 @@ public class UserService {
 
     private final CacheManager cacheManager;
 
+    private final CacheInvalidationBus cacheInvalidationBus;
+
     public UserService(
         UserRepository userRepository,
         UserSearchRepository userSearchRepository,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        CacheInvalidationBus cacheInvalidationBus
     ) {
         this.userRepository = userRepository;
         this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.cacheInvalidationBus = cacheInvalidationBus;
     }
 
     /**
@@ -119,6 +125,7 @@ public class UserService {
         // save account in to sync users between IdP and JHipster's local database
         Optional<User> existingUser = userRepository.findOneByLogin(user.getLogin());
         if (existingUser.isPresent()) {
+            String subject = String.valueOf(details.get("sub"));
             // if IdP sends last updated information, use it to determine if an update should happen
             if (details.get("updated_at") != null) {
                 Instant dbModifiedDate = existingUser.orElseThrow().getLastModifiedDate();
@@ -129,13 +136,11 @@ public class UserService {
                     idpModifiedDate = Instant.ofEpochSecond((Integer) details.get("updated_at"));
                 }
                 if (idpModifiedDate.isAfter(dbModifiedDate)) {
-                    LOG.debug("Updating user '{}' in local database", user.getLogin());
-                    updateUser(user.getFirstName(), user.getLastName(), user.getEmail(), user.getLangKey(), user.getImageUrl());
+                    updateUserFromIdP(existingUser.orElseThrow(), user, subject);
                 }
-                // no last updated info, blindly update
+                // no last updated info, update if anything changed
             } else {
-                LOG.debug("Updating user '{}' in local database", user.getLogin());
-                updateUser(user.getFirstName(), user.getLastName(), user.getEmail(), user.getLangKey(), user.getImageUrl());
+                updateUserFromIdP(existingUser.orElseThrow(), user, subject);
             }
         } else {
             LOG.debug("Saving user '{}' in local database", user.getLogin());
@@ -145,6 +150,44 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Copy the profile and the authorities the IdP sent to the local user, if they changed. The user information cached
+     * from the IdP is then evicted on every node: it is keyed by the subject of the token, which differs from the id of
+     * the user when the token has a {@code uid} claim.
+     */
+    private void updateUserFromIdP(User existingUser, User user, String subject) {
+        Set<String> authorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
+        boolean authoritiesChanged = !authorities.equals(
+            existingUser.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet())
+        );
+        boolean profileChanged =
+            !Objects.equals(existingUser.getFirstName(), user.getFirstName()) ||
+            !Objects.equals(existingUser.getLastName(), user.getLastName()) ||
+            (user.getEmail() != null && !user.getEmail().toLowerCase().equals(existingUser.getEmail())) ||
+            !Objects.equals(existingUser.getLangKey(), user.getLangKey()) ||
+            !Objects.equals(existingUser.getImageUrl(), user.getImageUrl());
+        if (!authoritiesChanged && !profileChanged) {
+            return;
+        }
+        LOG.debug("Updating user '{}' in local database", user.getLogin());
+        // evict the entries of the former email too
+        this.clearUserCaches(existingUser);
+        existingUser.setFirstName(user.getFirstName());
+        existingUser.setLastName(user.getLastName());
+        if (user.getEmail() != null) {
+            existingUser.setEmail(user.getEmail().toLowerCase());
+        }
+        existingUser.setLangKey(user.getLangKey());
+        existingUser.setImageUrl(user.getImageUrl());
+        if (authoritiesChanged) {
+            existingUser.setAuthorities(authorities.stream().map(authorityRepository::getReferenceById).collect(Collectors.toSet()));
+        }
+        userRepository.save(existingUser);
+        userSearchRepository.index(existingUser);
+        this.clearUserCaches(existingUser);
+        cacheInvalidationBus.invalidate(CustomClaimConverter.USERS_CACHE, subject);
+    }
+
     /**
      * Returns the user from an OAuth 2.0 login or resource server with JWT.
      * Synchronizes the user in the local repository.
@@ -0,0 +1,29 @@
+package io.hank.twentyonepoints.service.dto;
+
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.projection.PreferencesSummary;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Everything the home page shows about the current user.
+ *
+ * @param weekStart the first day of the current week.
+ * @param weekPoints the points of the user from the start of the week to today.
+ * @param weeklyGoal the weekly goal of the user, if they have preferences.
+ * @param goalProgress the week points as a percentage of the weekly goal, if the user has preferences.
+ * @param latestWeight the last weight of the user, if any.
+ * @param latestBloodPressure the last blood pressure of the user, if any.
+ * @param preferences the preferences of the user, if any.
+ */
+public record DashboardDTO(
+    LocalDate weekStart,
+    long weekPoints,
+    Integer weeklyGoal,
+    Integer goalProgress,
+    Weight latestWeight,
+    BloodPressure latestBloodPressure,
+    PreferencesSummary preferences
+)
+    implements Serializable {}
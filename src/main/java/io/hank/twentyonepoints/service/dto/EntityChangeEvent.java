@@ -0,0 +1,21 @@
+package io.hank.twentyonepoints.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A compact event telling that an entity was created, updated or deleted. It only identifies the entity,
+ * consumers needing its state load it.
+ *
+ * @param entityType the name of the entity type, e.g. {@code points}.
+ * @param entityId the id of the entity.
+ * @param action what happened to the entity.
+ * @param userId the id of the user owning the entity, if any.
+ * @param timestamp when the change was made.
+ */
+public record EntityChangeEvent(String entityType, Long entityId, Action action, String userId, Instant timestamp) {
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED,
+    }
+}
@@ -0,0 +1,16 @@
+package io.hank.twentyonepoints.service.dto;
+
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.Weight;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * All the health records of a user, archived ones included, oldest first.
+ *
+ * @param points the points of the user.
+ * @param weights the weights of the user.
+ * @param bloodPressures the blood pressures of the user.
+ */
+public record ExportDTO(List<Points> points, List<Weight> weights, List<BloodPressure> bloodPressures) implements Serializable {}
@@ -0,0 +1,12 @@
+package io.hank.twentyonepoints.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * A user ranked on the weekly leaderboard.
+ *
+ * @param rank the rank of the user, starting at 1.
+ * @param login the login of the user.
+ * @param points the points of the user this week.
+ */
+public record LeaderboardEntryDTO(long rank, String login, long points) implements Serializable {}
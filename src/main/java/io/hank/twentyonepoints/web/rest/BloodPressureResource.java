@@ -1,14 +1,23 @@
 package io.hank.twentyonepoints.web.rest;
 
+import io.hank.twentyonepoints.config.ApplicationProperties;
 import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.projection.BloodPressureSummary;
 import io.hank.twentyonepoints.repository.search.BloodPressureSearchRepository;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import io.hank.twentyonepoints.service.EntityChangeService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
 import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
 import io.hank.twentyonepoints.web.rest.errors.ElasticsearchExceptionMapper;
+import io.hank.twentyonepoints.web.util.ConditionalRequestUtil;
+import io.hank.twentyonepoints.web.util.SliceUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -45,12 +56,24 @@ public class BloodPressureResource {
 
     private final BloodPressureSearchRepository bloodPressureSearchRepository;
 
+    private final boolean inlineIndexing;
+
+    private final ChangeWatermarkService changeWatermarkService;
+
+    private final EntityChangeService entityChangeService;
+
     public BloodPressureResource(
         BloodPressureRepository bloodPressureRepository,
-        BloodPressureSearchRepository bloodPressureSearchRepository
+        BloodPressureSearchRepository bloodPressureSearchRepository,
+        ChangeWatermarkService changeWatermarkService,
+        EntityChangeService entityChangeService,
+        ApplicationProperties applicationProperties
     ) {
         this.bloodPressureRepository = bloodPressureRepository;
         this.bloodPressureSearchRepository = bloodPressureSearchRepository;
+        this.changeWatermarkService = changeWatermarkService;
+        this.entityChangeService = entityChangeService;
+        this.inlineIndexing = applicationProperties.getSearch().isInlineIndexing();
     }
 
     /**
@@ -67,7 +90,10 @@ public class BloodPressureResource {
             throw new BadRequestAlertException("A new bloodPressure cannot already have an ID", ENTITY_NAME, "idexists");
         }
         bloodPressure = bloodPressureRepository.save(bloodPressure);
-        bloodPressureSearchRepository.index(bloodPressure);
+        if (inlineIndexing) {
+            bloodPressureSearchRepository.index(bloodPressure);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, bloodPressure.getId(), EntityChangeEvent.Action.CREATED, bloodPressure.getUser());
         return ResponseEntity.created(new URI("/api/blood-pressures/" + bloodPressure.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, bloodPressure.getId().toString()))
             .body(bloodPressure);
@@ -101,7 +127,10 @@ public class BloodPressureResource {
         }
 
         bloodPressure = bloodPressureRepository.save(bloodPressure);
-        bloodPressureSearchRepository.index(bloodPressure);
+        if (inlineIndexing) {
+            bloodPressureSearchRepository.index(bloodPressure);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, bloodPressure.getId(), EntityChangeEvent.Action.UPDATED, bloodPressure.getUser());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bloodPressure.getId().toString()))
             .body(bloodPressure);
@@ -152,7 +181,15 @@ public class BloodPressureResource {
             })
             .map(bloodPressureRepository::save)
             .map(savedBloodPressure -> {
-                bloodPressureSearchRepository.index(savedBloodPressure);
+                if (inlineIndexing) {
+                    bloodPressureSearchRepository.index(savedBloodPressure);
+                }
+                entityChangeService.recordChange(
+                    ENTITY_NAME,
+                    savedBloodPressure.getId(),
+                    EntityChangeEvent.Action.UPDATED,
+                    savedBloodPressure.getUser()
+                );
                 return savedBloodPressure;
             });
 
@@ -163,25 +200,35 @@ public class BloodPressureResource {
     }
 
     /**
-     * {@code GET  /blood-pressures} : get all the bloodPressures.
+     * {@code GET  /blood-pressures} : get all the bloodPressures, with the id and login of their user only.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bloodPressures in body.
+     * @param slice flag to skip the count of all the entities, for infinite scroll: the response has no {@code X-Total-Count}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bloodPressures in body,
+     * or with status {@code 304 (Not Modified)} if none of them changed since the client copy.
      */
     @GetMapping("")
-    public ResponseEntity<List<BloodPressure>> getAllBloodPressures(
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<BloodPressureSummary>> getAllBloodPressures(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "slice", required = false, defaultValue = "false") boolean slice,
+        WebRequest webRequest
     ) {
         LOG.debug("REST request to get a page of BloodPressures");
-        Page<BloodPressure> page;
-        if (eagerload) {
-            page = bloodPressureRepository.findAllWithEagerRelationships(pageable);
-        } else {
-            page = bloodPressureRepository.findAll(pageable);
+        Instant lastModified = changeWatermarkService.getListWatermark(ENTITY_NAME);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, pageable, slice);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
         }
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        changeWatermarkService.routeReads(lastModified);
+        Slice<BloodPressureSummary> page = slice
+            ? bloodPressureRepository.findSliceSummaries(pageable)
+            : bloodPressureRepository.findAllSummaries(pageable);
+        HttpHeaders headers = page instanceof Page<BloodPressureSummary> fullPage
+            ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), fullPage)
+            : SliceUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.addAll(ConditionalRequestUtil.createRevalidationHeaders());
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -189,13 +236,22 @@ public class BloodPressureResource {
      * {@code GET  /blood-pressures/:id} : get the "id" bloodPressure.
      *
      * @param id the id of the bloodPressure to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bloodPressure, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bloodPressure, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the client copy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<BloodPressure> getBloodPressure(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<BloodPressure> getBloodPressure(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get BloodPressure : {}", id);
+        Instant lastModified = changeWatermarkService.getEntityWatermark(ENTITY_NAME, id);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, id);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
+        }
+        changeWatermarkService.routeReads(lastModified);
         Optional<BloodPressure> bloodPressure = bloodPressureRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(bloodPressure);
+        return ResponseUtil.wrapOrNotFound(bloodPressure, ConditionalRequestUtil.createRevalidationHeaders());
     }
 
     /**
@@ -207,8 +263,12 @@ public class BloodPressureResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteBloodPressure(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete BloodPressure : {}", id);
+        User user = bloodPressureRepository.findById(id).map(BloodPressure::getUser).orElse(null);
         bloodPressureRepository.deleteById(id);
-        bloodPressureSearchRepository.deleteFromIndexById(id);
+        if (inlineIndexing) {
+            bloodPressureSearchRepository.deleteFromIndexById(id);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, id, EntityChangeEvent.Action.DELETED, user);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -223,6 +283,7 @@ public class BloodPressureResource {
      * @return the result of the search.
      */
     @GetMapping("/_search")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<BloodPressure>> searchBloodPressures(
         @RequestParam("query") String query,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable
@@ -0,0 +1,38 @@
+package io.hank.twentyonepoints.web.rest;
+
+import io.hank.twentyonepoints.scheduling.ClusterJobRun;
+import io.hank.twentyonepoints.scheduling.ClusterJobRunner;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for the cluster jobs.
+ */
+@RestController
+@RequestMapping("/api/admin/jobs")
+public class ClusterJobResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClusterJobResource.class);
+
+    private final ClusterJobRunner clusterJobRunner;
+
+    public ClusterJobResource(ClusterJobRunner clusterJobRunner) {
+        this.clusterJobRunner = clusterJobRunner;
+    }
+
+    /**
+     * {@code GET  /admin/jobs/:job/history} : get the last runs of a cluster job.
+     *
+     * @param job the name of the job.
+     * @return the last runs of the job, most recent first.
+     */
+    @GetMapping("/{job}/history")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
+    public List<ClusterJobRun> getHistory(@PathVariable("job") String job) {
+        LOG.debug("REST request to get the history of job {}", job);
+        return clusterJobRunner.getHistory(job);
+    }
+}
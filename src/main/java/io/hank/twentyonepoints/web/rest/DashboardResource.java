@@ -0,0 +1,43 @@
+package io.hank.twentyonepoints.web.rest;
+
+import io.hank.twentyonepoints.security.SecurityUtils;
+import io.hank.twentyonepoints.service.DashboardService;
+import io.hank.twentyonepoints.service.dto.DashboardDTO;
+import io.hank.twentyonepoints.web.util.RequestCoalescer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the dashboard of the home page.
+ */
+@RestController
+@RequestMapping("/api")
+public class DashboardResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardResource.class);
+
+    private final DashboardService dashboardService;
+
+    private final RequestCoalescer requestCoalescer;
+
+    public DashboardResource(DashboardService dashboardService, RequestCoalescer requestCoalescer) {
+        this.dashboardService = dashboardService;
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    /**
+     * {@code GET  /dashboard} : get the week-to-date points, goal progress, latest weight, latest blood pressure and
+     * preferences of the current user, in a single response.
+     *
+     * @return the dashboard of the current user.
+     */
+    @GetMapping("/dashboard")
+    public DashboardDTO getDashboard() {
+        LOG.debug("REST request to get the dashboard of the current user");
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user login not found"));
+        return requestCoalescer.coalesce("dashboard", () -> dashboardService.getDashboard(login));
+    }
+}
@@ -0,0 +1,39 @@
+package io.hank.twentyonepoints.web.rest;
+
+import io.hank.twentyonepoints.security.SecurityUtils;
+import io.hank.twentyonepoints.service.HealthRecordArchiveService;
+import io.hank.twentyonepoints.service.dto.ExportDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller exporting the health records of the current user.
+ */
+@RestController
+@RequestMapping("/api")
+public class ExportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExportResource.class);
+
+    private final HealthRecordArchiveService healthRecordArchiveService;
+
+    public ExportResource(HealthRecordArchiveService healthRecordArchiveService) {
+        this.healthRecordArchiveService = healthRecordArchiveService;
+    }
+
+    /**
+     * {@code GET  /export} : get all the points, weights and blood pressures of the current user, including the ones
+     * moved to the archive after the retention period.
+     *
+     * @return the health records of the current user.
+     */
+    @GetMapping("/export")
+    public ExportDTO getExport() {
+        LOG.debug("REST request to export the health records of the current user");
+        String login = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user login not found"));
+        return healthRecordArchiveService.getExport(login);
+    }
+}
@@ -0,0 +1,60 @@
+package io.hank.twentyonepoints.web.rest;
+
+import io.hank.twentyonepoints.security.SecurityUtils;
+import io.hank.twentyonepoints.service.LeaderboardService;
+import io.hank.twentyonepoints.service.dto.LeaderboardEntryDTO;
+import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for the weekly leaderboard.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LeaderboardResource.class);
+
+    private static final int MAX_SIZE = 100;
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardResource(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * {@code GET  /leaderboard} : get the best ranked users of the week.
+     *
+     * @param size the number of users to get, at most {@value #MAX_SIZE}.
+     * @return the list of the best ranked users, best first.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the size is out of range.
+     */
+    @GetMapping("")
+    public List<LeaderboardEntryDTO> getLeaderboard(@RequestParam(name = "size", defaultValue = "10") int size) {
+        LOG.debug("REST request to get the top {} of the leaderboard", size);
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestAlertException("Leaderboard size must be between 1 and " + MAX_SIZE, "leaderboard", "sizeinvalid");
+        }
+        return leaderboardService.getTop(size);
+    }
+
+    /**
+     * {@code GET  /leaderboard/me} : get the rank of the current user this week.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the rank of the current user,
+     * or with status {@code 404 (Not Found)} if they are not on the leaderboard.
+     */
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntryDTO> getMyRank() {
+        LOG.debug("REST request to get the leaderboard rank of the current user");
+        Optional<LeaderboardEntryDTO> rank = SecurityUtils.getCurrentUserLogin().flatMap(leaderboardService::getRank);
+        return ResponseUtil.wrapOrNotFound(rank);
+    }
+}
@@ -0,0 +1,39 @@
+package io.hank.twentyonepoints.web.rest;
+
+import io.hank.twentyonepoints.repository.projection.PreferencesSummary;
+import io.hank.twentyonepoints.service.PreferencesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller reading the preferences of the current user.
+ */
+@RestController
+@RequestMapping("/api")
+public class MyPreferencesResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MyPreferencesResource.class);
+
+    private final PreferencesService preferencesService;
+
+    public MyPreferencesResource(PreferencesService preferencesService) {
+        this.preferencesService = preferencesService;
+    }
+
+    /**
+     * {@code GET  /my-preferences} : get the preferences of the current user.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the preferences, or with status
+     * {@code 404 (Not Found)} if the current user has none.
+     */
+    @GetMapping("/my-preferences")
+    public ResponseEntity<PreferencesSummary> getMyPreferences() {
+        LOG.debug("REST request to get the Preferences of the current user");
+        return ResponseUtil.wrapOrNotFound(preferencesService.getCurrentUserPreferences());
+    }
+}
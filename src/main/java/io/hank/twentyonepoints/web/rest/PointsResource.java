@@ -1,14 +1,23 @@
 package io.hank.twentyonepoints.web.rest;
 
+import io.hank.twentyonepoints.config.ApplicationProperties;
 import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.projection.PointsSummary;
 import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import io.hank.twentyonepoints.service.EntityChangeService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
 import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
 import io.hank.twentyonepoints.web.rest.errors.ElasticsearchExceptionMapper;
+import io.hank.twentyonepoints.web.util.ConditionalRequestUtil;
+import io.hank.twentyonepoints.web.util.SliceUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -45,9 +56,24 @@ public class PointsResource {
 
     private final PointsSearchRepository pointsSearchRepository;
 
-    public PointsResource(PointsRepository pointsRepository, PointsSearchRepository pointsSearchRepository) {
+    private final boolean inlineIndexing;
+
+    private final ChangeWatermarkService changeWatermarkService;
+
+    private final EntityChangeService entityChangeService;
+
+    public PointsResource(
+        PointsRepository pointsRepository,
+        PointsSearchRepository pointsSearchRepository,
+        ChangeWatermarkService changeWatermarkService,
+        EntityChangeService entityChangeService,
+        ApplicationProperties applicationProperties
+    ) {
         this.pointsRepository = pointsRepository;
         this.pointsSearchRepository = pointsSearchRepository;
+        this.changeWatermarkService = changeWatermarkService;
+        this.entityChangeService = entityChangeService;
+        this.inlineIndexing = applicationProperties.getSearch().isInlineIndexing();
     }
 
     /**
@@ -64,7 +90,10 @@ public class PointsResource {
             throw new BadRequestAlertException("A new points cannot already have an ID", ENTITY_NAME, "idexists");
         }
         points = pointsRepository.save(points);
-        pointsSearchRepository.index(points);
+        if (inlineIndexing) {
+            pointsSearchRepository.index(points);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, points.getId(), EntityChangeEvent.Action.CREATED, points.getUser());
         return ResponseEntity.created(new URI("/api/points/" + points.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, points.getId().toString()))
             .body(points);
@@ -98,7 +127,10 @@ public class PointsResource {
         }
 
         points = pointsRepository.save(points);
-        pointsSearchRepository.index(points);
+        if (inlineIndexing) {
+            pointsSearchRepository.index(points);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, points.getId(), EntityChangeEvent.Action.UPDATED, points.getUser());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, points.getId().toString()))
             .body(points);
@@ -155,7 +187,10 @@ public class PointsResource {
             })
             .map(pointsRepository::save)
             .map(savedPoints -> {
-                pointsSearchRepository.index(savedPoints);
+                if (inlineIndexing) {
+                    pointsSearchRepository.index(savedPoints);
+                }
+                entityChangeService.recordChange(ENTITY_NAME, savedPoints.getId(), EntityChangeEvent.Action.UPDATED, savedPoints.getUser());
                 return savedPoints;
             });
 
@@ -166,25 +201,33 @@ public class PointsResource {
     }
 
     /**
-     * {@code GET  /points} : get all the points.
+     * {@code GET  /points} : get all the points, with the id and login of their user only.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of points in body.
+     * @param slice flag to skip the count of all the entities, for infinite scroll: the response has no {@code X-Total-Count}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of points in body,
+     * or with status {@code 304 (Not Modified)} if none of them changed since the client copy.
      */
     @GetMapping("")
-    public ResponseEntity<List<Points>> getAllPoints(
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<PointsSummary>> getAllPoints(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "slice", required = false, defaultValue = "false") boolean slice,
+        WebRequest webRequest
     ) {
         LOG.debug("REST request to get a page of Points");
-        Page<Points> page;
-        if (eagerload) {
-            page = pointsRepository.findAllWithEagerRelationships(pageable);
-        } else {
-            page = pointsRepository.findAll(pageable);
+        Instant lastModified = changeWatermarkService.getListWatermark(ENTITY_NAME);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, pageable, slice);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
         }
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        changeWatermarkService.routeReads(lastModified);
+        Slice<PointsSummary> page = slice ? pointsRepository.findSliceSummaries(pageable) : pointsRepository.findAllSummaries(pageable);
+        HttpHeaders headers = page instanceof Page<PointsSummary> fullPage
+            ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), fullPage)
+            : SliceUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.addAll(ConditionalRequestUtil.createRevalidationHeaders());
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -192,13 +235,22 @@ public class PointsResource {
      * {@code GET  /points/:id} : get the "id" points.
      *
      * @param id the id of the points to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the points, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the points, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the client copy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Points> getPoints(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Points> getPoints(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get Points : {}", id);
+        Instant lastModified = changeWatermarkService.getEntityWatermark(ENTITY_NAME, id);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, id);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
+        }
+        changeWatermarkService.routeReads(lastModified);
         Optional<Points> points = pointsRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(points);
+        return ResponseUtil.wrapOrNotFound(points, ConditionalRequestUtil.createRevalidationHeaders());
     }
 
     /**
@@ -210,8 +262,12 @@ public class PointsResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePoints(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Points : {}", id);
+        User user = pointsRepository.findById(id).map(Points::getUser).orElse(null);
         pointsRepository.deleteById(id);
-        pointsSearchRepository.deleteFromIndexById(id);
+        if (inlineIndexing) {
+            pointsSearchRepository.deleteFromIndexById(id);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, id, EntityChangeEvent.Action.DELETED, user);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -226,6 +282,7 @@ public class PointsResource {
      * @return the result of the search.
      */
     @GetMapping("/_search")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Points>> searchPoints(
         @RequestParam("query") String query,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable
@@ -1,14 +1,21 @@
 package io.hank.twentyonepoints.web.rest;
 
+import io.hank.twentyonepoints.config.ApplicationProperties;
 import io.hank.twentyonepoints.domain.Preferences;
+import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.PreferencesRepository;
 import io.hank.twentyonepoints.repository.search.PreferencesSearchRepository;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import io.hank.twentyonepoints.service.EntityChangeService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
 import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
 import io.hank.twentyonepoints.web.rest.errors.ElasticsearchExceptionMapper;
+import io.hank.twentyonepoints.web.util.ConditionalRequestUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,6 +26,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -41,9 +49,24 @@ public class PreferencesResource {
 
     private final PreferencesSearchRepository preferencesSearchRepository;
 
-    public PreferencesResource(PreferencesRepository preferencesRepository, PreferencesSearchRepository preferencesSearchRepository) {
+    private final boolean inlineIndexing;
+
+    private final ChangeWatermarkService changeWatermarkService;
+
+    private final EntityChangeService entityChangeService;
+
+    public PreferencesResource(
+        PreferencesRepository preferencesRepository,
+        PreferencesSearchRepository preferencesSearchRepository,
+        ChangeWatermarkService changeWatermarkService,
+        EntityChangeService entityChangeService,
+        ApplicationProperties applicationProperties
+    ) {
         this.preferencesRepository = preferencesRepository;
         this.preferencesSearchRepository = preferencesSearchRepository;
+        this.changeWatermarkService = changeWatermarkService;
+        this.entityChangeService = entityChangeService;
+        this.inlineIndexing = applicationProperties.getSearch().isInlineIndexing();
     }
 
     /**
@@ -60,7 +83,10 @@ public class PreferencesResource {
             throw new BadRequestAlertException("A new preferences cannot already have an ID", ENTITY_NAME, "idexists");
         }
         preferences = preferencesRepository.save(preferences);
-        preferencesSearchRepository.index(preferences);
+        if (inlineIndexing) {
+            preferencesSearchRepository.index(preferences);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, preferences.getId(), EntityChangeEvent.Action.CREATED, preferences.getUser());
         return ResponseEntity.created(new URI("/api/preferences/" + preferences.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, preferences.getId().toString()))
             .body(preferences);
@@ -94,7 +120,10 @@ public class PreferencesResource {
         }
 
         preferences = preferencesRepository.save(preferences);
-        preferencesSearchRepository.index(preferences);
+        if (inlineIndexing) {
+            preferencesSearchRepository.index(preferences);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, preferences.getId(), EntityChangeEvent.Action.UPDATED, preferences.getUser());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, preferences.getId().toString()))
             .body(preferences);
@@ -137,12 +166,23 @@ public class PreferencesResource {
                 if (preferences.getWeightUnits() != null) {
                     existingPreferences.setWeightUnits(preferences.getWeightUnits());
                 }
+                if (preferences.getLeaderboardOptIn() != null) {
+                    existingPreferences.setLeaderboardOptIn(preferences.getLeaderboardOptIn());
+                }
 
                 return existingPreferences;
             })
             .map(preferencesRepository::save)
             .map(savedPreferences -> {
-                preferencesSearchRepository.index(savedPreferences);
+                if (inlineIndexing) {
+                    preferencesSearchRepository.index(savedPreferences);
+                }
+                entityChangeService.recordChange(
+                    ENTITY_NAME,
+                    savedPreferences.getId(),
+                    EntityChangeEvent.Action.UPDATED,
+                    savedPreferences.getUser()
+                );
                 return savedPreferences;
             });
 
@@ -156,17 +196,31 @@ public class PreferencesResource {
      * {@code GET  /preferences} : get all the preferences.
      *
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of preferences in body.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of preferences in body,
+     * or with status {@code 304 (Not Modified)} if none of them changed since the client copy.
      */
     @GetMapping("")
-    public List<Preferences> getAllPreferences(
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<Preferences>> getAllPreferences(
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        WebRequest webRequest
     ) {
         LOG.debug("REST request to get all Preferences");
+        Instant lastModified = changeWatermarkService.getListWatermark(ENTITY_NAME);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, eagerload);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
+        }
+        changeWatermarkService.routeReads(lastModified);
         if (eagerload) {
-            return preferencesRepository.findAllWithEagerRelationships();
+            return ResponseEntity.ok()
+                .headers(ConditionalRequestUtil.createRevalidationHeaders())
+                .body(preferencesRepository.findAllWithEagerRelationships());
         } else {
-            return preferencesRepository.findAll();
+            return ResponseEntity.ok()
+                .headers(ConditionalRequestUtil.createRevalidationHeaders())
+                .body(preferencesRepository.findAll());
         }
     }
 
@@ -174,13 +228,22 @@ public class PreferencesResource {
      * {@code GET  /preferences/:id} : get the "id" preferences.
      *
      * @param id the id of the preferences to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the preferences, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the preferences, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the client copy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Preferences> getPreferences(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Preferences> getPreferences(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get Preferences : {}", id);
+        Instant lastModified = changeWatermarkService.getEntityWatermark(ENTITY_NAME, id);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, id);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
+        }
+        changeWatermarkService.routeReads(lastModified);
         Optional<Preferences> preferences = preferencesRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(preferences);
+        return ResponseUtil.wrapOrNotFound(preferences, ConditionalRequestUtil.createRevalidationHeaders());
     }
 
     /**
@@ -192,8 +255,12 @@ public class PreferencesResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePreferences(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Preferences : {}", id);
+        User user = preferencesRepository.findById(id).map(Preferences::getUser).orElse(null);
         preferencesRepository.deleteById(id);
-        preferencesSearchRepository.deleteFromIndexById(id);
+        if (inlineIndexing) {
+            preferencesSearchRepository.deleteFromIndexById(id);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, id, EntityChangeEvent.Action.DELETED, user);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -207,6 +274,7 @@ public class PreferencesResource {
      * @return the result of the search.
      */
     @GetMapping("/_search")
+    @Transactional(readOnly = true)
     public List<Preferences> searchPreferences(@RequestParam("query") String query) {
         LOG.debug("REST request to search Preferences for query {}", query);
         try {
@@ -1,10 +1,19 @@
 package io.hank.twentyonepoints.web.rest;
 
-import io.hank.twentyonepoints.broker.KafkaConsumer;
+import io.hank.twentyonepoints.broker.KafkaBatchPublisher;
+import io.hank.twentyonepoints.broker.KafkaPublishResult;
+import io.hank.twentyonepoints.broker.SseEmitterRegistry;
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
 import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
@@ -15,12 +24,21 @@ public class TwentyOnePointsKafkaResource {
     private static final String PRODUCER_BINDING_NAME = "binding-out-0";
 
     private static final Logger LOG = LoggerFactory.getLogger(TwentyOnePointsKafkaResource.class);
-    private final KafkaConsumer kafkaConsumer;
+    private final SseEmitterRegistry sseEmitterRegistry;
     private final StreamBridge streamBridge;
+    private final KafkaBatchPublisher kafkaBatchPublisher;
+    private final int maxBatchSize;
 
-    public TwentyOnePointsKafkaResource(StreamBridge streamBridge, KafkaConsumer kafkaConsumer) {
+    public TwentyOnePointsKafkaResource(
+        StreamBridge streamBridge,
+        SseEmitterRegistry sseEmitterRegistry,
+        KafkaBatchPublisher kafkaBatchPublisher,
+        ApplicationProperties applicationProperties
+    ) {
         this.streamBridge = streamBridge;
-        this.kafkaConsumer = kafkaConsumer;
+        this.sseEmitterRegistry = sseEmitterRegistry;
+        this.kafkaBatchPublisher = kafkaBatchPublisher;
+        this.maxBatchSize = applicationProperties.getKafka().getMaxBatchSize();
     }
 
     @PostMapping("/publish")
@@ -29,13 +47,37 @@ public class TwentyOnePointsKafkaResource {
         streamBridge.send(PRODUCER_BINDING_NAME, message);
     }
 
+    /**
+     * {@code POST  /publish-batch} : Publish a batch of messages.
+     *
+     * @param messages the messages to publish, in order.
+     * @return the topic, partition and offset of each message, in the same order, once all are acknowledged;
+     * or with status {@code 429 (Too Many Requests)} if the producer is saturated.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the batch is too large.
+     */
+    @PostMapping("/publish-batch")
+    public CompletableFuture<List<KafkaPublishResult>> publishBatch(@RequestBody List<String> messages) {
+        LOG.debug("REST request to publish a batch of {} messages to Kafka", messages.size());
+        if (messages.size() > maxBatchSize) {
+            throw new BadRequestAlertException("A batch cannot hold more than " + maxBatchSize + " messages", "kafka", "batchtoolarge");
+        }
+        return kafkaBatchPublisher.publish(messages);
+    }
+
     @GetMapping("/register")
-    public ResponseBodyEmitter register(Principal principal) {
-        return kafkaConsumer.register(principal.getName());
+    public ResponseBodyEmitter register(
+        Authentication authentication,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return sseEmitterRegistry.register(
+            authentication.getName(),
+            authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()),
+            lastEventId
+        );
     }
 
     @GetMapping("/unregister")
     public void unregister(Principal principal) {
-        kafkaConsumer.unregister(principal.getName());
+        sseEmitterRegistry.unregister(principal.getName());
     }
 }
@@ -1,14 +1,23 @@
 package io.hank.twentyonepoints.web.rest;
 
+import io.hank.twentyonepoints.config.ApplicationProperties;
 import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.WeightRepository;
+import io.hank.twentyonepoints.repository.projection.WeightSummary;
 import io.hank.twentyonepoints.repository.search.WeightSearchRepository;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import io.hank.twentyonepoints.service.EntityChangeService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
 import io.hank.twentyonepoints.web.rest.errors.BadRequestAlertException;
 import io.hank.twentyonepoints.web.rest.errors.ElasticsearchExceptionMapper;
+import io.hank.twentyonepoints.web.util.ConditionalRequestUtil;
+import io.hank.twentyonepoints.web.util.SliceUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -17,10 +26,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -45,9 +56,24 @@ public class WeightResource {
 
     private final WeightSearchRepository weightSearchRepository;
 
-    public WeightResource(WeightRepository weightRepository, WeightSearchRepository weightSearchRepository) {
+    private final boolean inlineIndexing;
+
+    private final ChangeWatermarkService changeWatermarkService;
+
+    private final EntityChangeService entityChangeService;
+
+    public WeightResource(
+        WeightRepository weightRepository,
+        WeightSearchRepository weightSearchRepository,
+        ChangeWatermarkService changeWatermarkService,
+        EntityChangeService entityChangeService,
+        ApplicationProperties applicationProperties
+    ) {
         this.weightRepository = weightRepository;
         this.weightSearchRepository = weightSearchRepository;
+        this.changeWatermarkService = changeWatermarkService;
+        this.entityChangeService = entityChangeService;
+        this.inlineIndexing = applicationProperties.getSearch().isInlineIndexing();
     }
 
     /**
@@ -64,7 +90,10 @@ public class WeightResource {
             throw new BadRequestAlertException("A new weight cannot already have an ID", ENTITY_NAME, "idexists");
         }
         weight = weightRepository.save(weight);
-        weightSearchRepository.index(weight);
+        if (inlineIndexing) {
+            weightSearchRepository.index(weight);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, weight.getId(), EntityChangeEvent.Action.CREATED, weight.getUser());
         return ResponseEntity.created(new URI("/api/weights/" + weight.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, weight.getId().toString()))
             .body(weight);
@@ -98,7 +127,10 @@ public class WeightResource {
         }
 
         weight = weightRepository.save(weight);
-        weightSearchRepository.index(weight);
+        if (inlineIndexing) {
+            weightSearchRepository.index(weight);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, weight.getId(), EntityChangeEvent.Action.UPDATED, weight.getUser());
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, weight.getId().toString()))
             .body(weight);
@@ -146,7 +178,10 @@ public class WeightResource {
             })
             .map(weightRepository::save)
             .map(savedWeight -> {
-                weightSearchRepository.index(savedWeight);
+                if (inlineIndexing) {
+                    weightSearchRepository.index(savedWeight);
+                }
+                entityChangeService.recordChange(ENTITY_NAME, savedWeight.getId(), EntityChangeEvent.Action.UPDATED, savedWeight.getUser());
                 return savedWeight;
             });
 
@@ -157,25 +192,33 @@ public class WeightResource {
     }
 
     /**
-     * {@code GET  /weights} : get all the weights.
+     * {@code GET  /weights} : get all the weights, with the id and login of their user only.
      *
      * @param pageable the pagination information.
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of weights in body.
+     * @param slice flag to skip the count of all the entities, for infinite scroll: the response has no {@code X-Total-Count}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of weights in body,
+     * or with status {@code 304 (Not Modified)} if none of them changed since the client copy.
      */
     @GetMapping("")
-    public ResponseEntity<List<Weight>> getAllWeights(
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<WeightSummary>> getAllWeights(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "slice", required = false, defaultValue = "false") boolean slice,
+        WebRequest webRequest
     ) {
         LOG.debug("REST request to get a page of Weights");
-        Page<Weight> page;
-        if (eagerload) {
-            page = weightRepository.findAllWithEagerRelationships(pageable);
-        } else {
-            page = weightRepository.findAll(pageable);
+        Instant lastModified = changeWatermarkService.getListWatermark(ENTITY_NAME);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, pageable, slice);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
         }
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        changeWatermarkService.routeReads(lastModified);
+        Slice<WeightSummary> page = slice ? weightRepository.findSliceSummaries(pageable) : weightRepository.findAllSummaries(pageable);
+        HttpHeaders headers = page instanceof Page<WeightSummary> fullPage
+            ? PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), fullPage)
+            : SliceUtil.generateSliceHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        headers.addAll(ConditionalRequestUtil.createRevalidationHeaders());
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -183,13 +226,22 @@ public class WeightResource {
      * {@code GET  /weights/:id} : get the "id" weight.
      *
      * @param id the id of the weight to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the weight, or with status {@code 404 (Not Found)}.
+     * @param webRequest the current request, checked for {@code If-None-Match} and {@code If-Modified-Since} preconditions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the weight, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if it did not change since the client copy.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Weight> getWeight(@PathVariable("id") Long id) {
+    @Transactional(readOnly = true)
+    public ResponseEntity<Weight> getWeight(@PathVariable("id") Long id, WebRequest webRequest) {
         LOG.debug("REST request to get Weight : {}", id);
+        Instant lastModified = changeWatermarkService.getEntityWatermark(ENTITY_NAME, id);
+        String eTag = ConditionalRequestUtil.generateETag(lastModified, ENTITY_NAME, id);
+        if (ConditionalRequestUtil.checkNotModified(webRequest, eTag, lastModified)) {
+            return ConditionalRequestUtil.notModified();
+        }
+        changeWatermarkService.routeReads(lastModified);
         Optional<Weight> weight = weightRepository.findOneWithEagerRelationships(id);
-        return ResponseUtil.wrapOrNotFound(weight);
+        return ResponseUtil.wrapOrNotFound(weight, ConditionalRequestUtil.createRevalidationHeaders());
     }
 
     /**
@@ -201,8 +253,12 @@ public class WeightResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteWeight(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Weight : {}", id);
+        User user = weightRepository.findById(id).map(Weight::getUser).orElse(null);
         weightRepository.deleteById(id);
-        weightSearchRepository.deleteFromIndexById(id);
+        if (inlineIndexing) {
+            weightSearchRepository.deleteFromIndexById(id);
+        }
+        entityChangeService.recordChange(ENTITY_NAME, id, EntityChangeEvent.Action.DELETED, user);
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
@@ -217,6 +273,7 @@ public class WeightResource {
      * @return the result of the search.
      */
     @GetMapping("/_search")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<Weight>> searchWeights(
         @RequestParam("query") String query,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable
@@ -0,0 +1,75 @@
+package io.hank.twentyonepoints.web.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Utility class for answering conditional {@code GET} requests ({@code If-None-Match} and
+ * {@code If-Modified-Since}) from a change watermark, before anything is loaded.
+ */
+public final class ConditionalRequestUtil {
+
+    private ConditionalRequestUtil() {}
+
+    /**
+     * Generate a strong entity tag from a change watermark and everything else the representation depends on.
+     *
+     * @param lastModified the change watermark of the representation.
+     * @param parts the other parts of the representation identity, e.g. the entity name, its id or the page request.
+     * @return the quoted entity tag.
+     */
+    public static String generateETag(Instant lastModified, Object... parts) {
+        String identity =
+            lastModified.getEpochSecond() +
+            "." +
+            lastModified.getNano() +
+            Arrays.stream(parts).map(part -> "|" + Objects.toString(part)).collect(Collectors.joining());
+        return '"' + DigestUtils.md5DigestAsHex(identity.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    /**
+     * Check the request preconditions against an entity tag and a change watermark.
+     * <p>
+     * The {@code ETag} and {@code Last-Modified} headers are written to the response in any case, so the caller must not add them again.
+     *
+     * @param request the current request.
+     * @param eTag the entity tag of the current representation.
+     * @param lastModified the change watermark of the current representation.
+     * @return {@code true} if the client copy is still current and a {@code 304 (Not Modified)} should be returned.
+     */
+    public static boolean checkNotModified(WebRequest request, String eTag, Instant lastModified) {
+        return request.checkNotModified(eTag, lastModified.toEpochMilli());
+    }
+
+    /**
+     * Create the headers letting browsers keep a private copy of a response, as long as they revalidate it on every use.
+     * <p>
+     * This replaces the default {@code no-store} policy, which would keep browsers from ever sending preconditions.
+     *
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders createRevalidationHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.noCache().cachePrivate());
+        return headers;
+    }
+
+    /**
+     * Build an empty {@code 304 (Not Modified)} response, to be returned once {@link #checkNotModified} matched.
+     *
+     * @param <X> type of the response body.
+     * @return the response.
+     */
+    public static <X> ResponseEntity<X> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+}
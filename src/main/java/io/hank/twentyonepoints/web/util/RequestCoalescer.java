@@ -0,0 +1,95 @@
+package io.hank.twentyonepoints.web.util;
+
+import io.hank.twentyonepoints.security.SecurityUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shares the computation of a read between the identical requests running at the same time, such as the ones sent at
+ * once by several tabs of the application.
+ * <p>
+ * Requests are identical when they come from the same user, to the same endpoint, with the same parameters. The first
+ * one runs the computation, and the other ones wait for its result instead of running it again: they get the same
+ * result, or the same exception. Nothing is kept once the computation ends, so this is no cache, and a request arriving
+ * right after gets a fresh result.
+ * <p>
+ * The requests which waited for another one are counted in {@code http.server.requests.coalesced} by endpoint, and the
+ * computations running in {@code http.server.requests.coalescing}.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("http.server.requests.coalescing", inFlight, Map::size)
+            .description("Reads running, which identical requests can wait for")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Run a read for the current user, or wait for the identical one already running.
+     * <p>
+     * The computation must not depend on anything else than the current user, the endpoint and the parameters, and must
+     * only read. Its result is handed to other requests, on other threads: it must be detached, a DTO or values read in
+     * a transaction which has ended, never an entity managed by the persistence context of the request computing it.
+     *
+     * @param endpoint the name of the endpoint.
+     * @param computation the read.
+     * @param parameters the parameters of the request the read depends on.
+     * @param <T> the type of the result.
+     * @return the result of the read.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(String endpoint, Supplier<T> computation, Object... parameters) {
+        Key key = new Key(SecurityUtils.getCurrentUserLogin().orElse(null), endpoint, Arrays.asList(parameters));
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            Counter.builder("http.server.requests.coalesced")
+                .description("Requests which waited for an identical request instead of running their own read")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+            return (T) await(running);
+        }
+        try {
+            T result = computation.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String user, String endpoint, List<Object> parameters) {}
+}
@@ -0,0 +1,57 @@
+package io.hank.twentyonepoints.web.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for the pagination headers of {@link Slice}s, which have no total count.
+ * <p>
+ * The {@code Link} header has the same relations as the one of a page, for the infinite scroll of the client, but
+ * {@code last} is the next slice while there is one, as the number of slices is unknown, and there is no
+ * {@code X-Total-Count} header.
+ */
+public final class SliceUtil {
+
+    private SliceUtil() {}
+
+    /**
+     * Generate the pagination headers of a slice.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param slice the slice.
+     * @param <T> the type of the slice content.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateSliceHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice) {
+        int number = slice.getNumber();
+        int size = slice.getSize();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(prepareLink(uriBuilder, number + 1, size, "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(prepareLink(uriBuilder, number - 1, size, "prev"));
+        }
+        links.add(prepareLink(uriBuilder, slice.hasNext() ? number + 1 : number, size, "last"));
+        links.add(prepareLink(uriBuilder, 0, size, "first"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, String.join(",", links));
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize, String relType) {
+        return "<" + preparePageUri(uriBuilder, pageNumber, pageSize) + ">; rel=\"" + relType + "\"";
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, int pageNumber, int pageSize) {
+        return uriBuilder
+            .replaceQueryParam("page", Integer.toString(pageNumber))
+            .replaceQueryParam("size", Integer.toString(pageSize))
+            .toUriString()
+            .replace(",", "%2C")
+            .replace(";", "%3B");
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Web layer utilities.
+ */
+package io.hank.twentyonepoints.web.util;
@@ -33,7 +33,7 @@ export const searchEntities = createAsyncThunk(
 export const getEntities = createAsyncThunk(
     'points/fetch_entity_list',
     async ({ page, size, sort }: IQueryParams) => {
-        const requestUrl = `${apiUrl}?${sort ? `page=${page}&size=${size}&sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
+        const requestUrl = `${apiUrl}?${sort ? `page=${page}&size=${size}&sort=${sort}&` : ''}slice=true`;
         return axios.get<IPoints[]>(requestUrl);
     },
     { serializeError: serializeAxiosError },
@@ -43,6 +43,12 @@ export const PreferencesDetail = () => {
                         </span>
                     </dt>
                     <dd>{preferencesEntity.weightUnits}</dd>
+                    <dt>
+                        <span id="leaderboardOptIn">
+                            <Translate contentKey="twentyOnePointsApp.preferences.leaderboardOptIn">Leaderboard Opt In</Translate>
+                        </span>
+                    </dt>
+                    <dd>{preferencesEntity.leaderboardOptIn ? 'true' : 'false'}</dd>
                     <dt>
                         <Translate contentKey="twentyOnePointsApp.preferences.user">User</Translate>
                     </dt>
@@ -128,6 +128,14 @@ export const PreferencesUpdate = () => {
                                     </option>
                                 ))}
                             </ValidatedField>
+                            <ValidatedField
+                                label={translate('twentyOnePointsApp.preferences.leaderboardOptIn')}
+                                id="preferences-leaderboardOptIn"
+                                name="leaderboardOptIn"
+                                data-cy="leaderboardOptIn"
+                                check
+                                type="checkbox"
+                            />
                             <ValidatedField
                                 id="preferences-user"
                                 name="user"
@@ -223,6 +223,15 @@ describe('Entities reducer tests', () => {
             expect(pendingAction.meta.requestStatus).toBe('pending');
             expect(getEntities.fulfilled.match(result)).toBe(true);
         });
+        it('requests the same list URL each time, so that the browser revalidates its copy', async () => {
+            const arg = { page: 0, size: 20, sort: 'id,asc' };
+
+            await getEntities(arg)(dispatch, getState, extra);
+            await getEntities(arg)(dispatch, getState, extra);
+
+            const get = axios.get as sinon.SinonStub;
+            expect(get.firstCall.args[0]).toBe(get.secondCall.args[0]);
+        });
         it('dispatches SEARCH_WEIGHTS actions', async () => {
             const arg = {};
 
@@ -5,6 +5,7 @@ export interface IPreferences {
     id?: number;
     weeklyGoal?: number;
     weightUnits?: keyof typeof Units;
+    leaderboardOptIn?: boolean | null;
     user?: IUser | null;
 }
 
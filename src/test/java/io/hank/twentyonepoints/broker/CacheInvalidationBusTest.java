@@ -0,0 +1,74 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RFuture;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+
+class CacheInvalidationBusTest {
+
+    private RTopic topic;
+
+    private MessageListener<CacheInvalidation> topicListener;
+
+    private CacheInvalidationBus cacheInvalidationBus;
+
+    private final List<String> evicted = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        topic = mock(RTopic.class);
+        when(redissonClient.getTopic(CacheInvalidationBus.TOPIC)).thenReturn(topic);
+        when(topic.publishAsync(any())).thenReturn(mock(RFuture.class));
+        cacheInvalidationBus = new CacheInvalidationBus(redissonClient, new SimpleMeterRegistry());
+        ArgumentCaptor<MessageListener<CacheInvalidation>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(topic).addListener(eq(CacheInvalidation.class), listener.capture());
+        topicListener = listener.getValue();
+        cacheInvalidationBus.subscribe("users", evicted::add);
+    }
+
+    @Test
+    void evictsLocallyAndPublishesToOtherNodes() {
+        cacheInvalidationBus.invalidate("users", "user-id");
+
+        assertThat(evicted).containsExactly("user-id");
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+        assertThat(invalidation.getValue().region()).isEqualTo("users");
+        assertThat(invalidation.getValue().key()).isEqualTo("user-id");
+    }
+
+    @Test
+    void evictsOnInvalidationsFromOtherNodes() {
+        topicListener.onMessage(CacheInvalidationBus.TOPIC, new CacheInvalidation("users", "user-id", "other-node"));
+        topicListener.onMessage(CacheInvalidationBus.TOPIC, new CacheInvalidation("other-cache", "user-id", "other-node"));
+
+        assertThat(evicted).containsExactly("user-id");
+    }
+
+    @Test
+    void ignoresItsOwnInvalidations() {
+        cacheInvalidationBus.invalidate("users", "user-id");
+        ArgumentCaptor<CacheInvalidation> invalidation = ArgumentCaptor.forClass(CacheInvalidation.class);
+        verify(topic).publishAsync(invalidation.capture());
+
+        topicListener.onMessage(CacheInvalidationBus.TOPIC, invalidation.getValue());
+
+        assertThat(evicted).containsExactly("user-id");
+    }
+}
@@ -0,0 +1,80 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+class KafkaBatchPublisherTest {
+
+    private static final String TOPIC = "binding-out-0";
+
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private KafkaBatchPublisher kafkaBatchPublisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getKafka().setMaxInFlightMessages(2);
+        kafkaBatchPublisher = new KafkaBatchPublisher(kafkaTemplate, applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void returnsOffsetsInOrder() {
+        when(kafkaTemplate.send(TOPIC, "first")).thenReturn(CompletableFuture.completedFuture(sendResult("first", 7)));
+        when(kafkaTemplate.send(TOPIC, "second")).thenReturn(CompletableFuture.completedFuture(sendResult("second", 8)));
+
+        List<KafkaPublishResult> results = kafkaBatchPublisher.publish(List.of("first", "second")).join();
+
+        assertThat(results).extracting(KafkaPublishResult::offset).containsExactly(7L, 8L);
+        assertThat(meterRegistry.get("kafka.publish.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void refusesMessagesBeyondInFlightLimit() {
+        when(kafkaTemplate.send(eq(TOPIC), anyString())).thenReturn(new CompletableFuture<>());
+        kafkaBatchPublisher.publish(List.of("first", "second"));
+
+        assertThatThrownBy(() -> kafkaBatchPublisher.publish(List.of("third"))).isInstanceOf(KafkaBackpressureException.class);
+        assertThat(meterRegistry.get("kafka.publish.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void reportsProducerTimeoutsAsBackpressure() {
+        when(kafkaTemplate.send(TOPIC, "first")).thenReturn(CompletableFuture.failedFuture(new TimeoutException("buffer full")));
+
+        CompletableFuture<List<KafkaPublishResult>> results = kafkaBatchPublisher.publish(List.of("first"));
+
+        assertThatThrownBy(results::join).isInstanceOf(CompletionException.class).hasCauseInstanceOf(KafkaBackpressureException.class);
+        assertThat(meterRegistry.get("kafka.publish.in.flight").gauge().value()).isZero();
+    }
+
+    private static SendResult<String, String> sendResult(String message, long offset) {
+        return new SendResult<>(
+            new ProducerRecord<>(TOPIC, message),
+            new RecordMetadata(new TopicPartition(TOPIC, 0), offset, 0, 0L, 0, 0)
+        );
+    }
+}
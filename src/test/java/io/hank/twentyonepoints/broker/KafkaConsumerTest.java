@@ -0,0 +1,58 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class KafkaConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SseEmitterRegistry sseEmitterRegistry;
+
+    private KafkaConsumer kafkaConsumer;
+
+    @BeforeEach
+    void setUp() {
+        sseEmitterRegistry = mock(SseEmitterRegistry.class);
+        kafkaConsumer = new KafkaConsumer(sseEmitterRegistry, objectMapper);
+    }
+
+    @Test
+    void sendsUserMessagesToThatUserOnly() throws Exception {
+        kafkaConsumer.accept(objectMapper.writeValueAsString(SseMessage.toUser("user", "value")));
+
+        verify(sseEmitterRegistry).publish(SseMessage.toUser("user", "value"));
+        verifyNoMoreInteractions(sseEmitterRegistry);
+    }
+
+    @Test
+    void sendsGroupMessagesToThatGroupOnly() throws Exception {
+        kafkaConsumer.accept(objectMapper.writeValueAsString(SseMessage.toGroup("ROLE_ADMIN", "value")));
+
+        verify(sseEmitterRegistry).publish(SseMessage.toGroup("ROLE_ADMIN", "value"));
+        verifyNoMoreInteractions(sseEmitterRegistry);
+    }
+
+    @Test
+    void broadcastsExplicitBroadcastMessages() throws Exception {
+        kafkaConsumer.accept(objectMapper.writeValueAsString(SseMessage.toAll("value")));
+
+        verify(sseEmitterRegistry).publish(SseMessage.toAll("value"));
+        verifyNoMoreInteractions(sseEmitterRegistry);
+    }
+
+    @Test
+    void broadcastsPlainMessagesAsIs() {
+        kafkaConsumer.accept("value");
+        kafkaConsumer.accept("{\"not\":\"an envelope\"}");
+
+        verify(sseEmitterRegistry).publish(SseMessage.toAll("value"));
+        verify(sseEmitterRegistry).publish(SseMessage.toAll("{\"not\":\"an envelope\"}"));
+        verifyNoMoreInteractions(sseEmitterRegistry);
+    }
+}
@@ -0,0 +1,143 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class SseEmitterRegistryTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SseEmitterRegistry sseEmitterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        createRegistry();
+    }
+
+    private void createRegistry() {
+        if (sseEmitterRegistry != null) {
+            sseEmitterRegistry.destroy();
+        }
+        meterRegistry = new SimpleMeterRegistry();
+        sseEmitterRegistry = new SseEmitterRegistry(applicationProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sseEmitterRegistry.destroy();
+    }
+
+    @Test
+    void keepsEveryConnectionOfAUser() {
+        SseEmitter firstTab = sseEmitterRegistry.register("user", Set.of());
+        SseEmitter secondTab = sseEmitterRegistry.register("user", Set.of());
+        sseEmitterRegistry.register("other", Set.of());
+
+        assertThat(firstTab).isNotSameAs(secondTab);
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void unregisterClosesAllConnectionsOfAUser() {
+        sseEmitterRegistry.register("user", Set.of());
+        sseEmitterRegistry.register("user", Set.of());
+        sseEmitterRegistry.register("other", Set.of());
+
+        sseEmitterRegistry.unregister("user");
+
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void broadcastDoesNotBlockOnUninitializedEmitters() {
+        sseEmitterRegistry.register("user", Set.of());
+
+        for (int i = 0; i < 10; i++) {
+            sseEmitterRegistry.publish(SseMessage.toAll("event-" + i));
+        }
+
+        assertThat(meterRegistry.get("sse.connections.dropped").tag("reason", "slow-consumer").counter().count()).isZero();
+    }
+
+    @Test
+    void removesClosedConnectionsFromTheGroupIndex() {
+        sseEmitterRegistry.register("user", Set.of("ROLE_USER"));
+        sseEmitterRegistry.register("admin", Set.of("ROLE_USER", "ROLE_ADMIN"));
+
+        sseEmitterRegistry.unregister("admin");
+        sseEmitterRegistry.publish(SseMessage.toGroup("ROLE_ADMIN", "event"));
+        sseEmitterRegistry.publish(SseMessage.toGroup("ROLE_USER", "event"));
+
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.connections.dropped").tag("reason", "slow-consumer").counter().count()).isZero();
+    }
+
+    @Test
+    void closesOldestConnectionsBeyondUserLimit() {
+        applicationProperties.getSse().setMaxConnectionsPerUser(2);
+        createRegistry();
+
+        sseEmitterRegistry.register("user", Set.of());
+        sseEmitterRegistry.register("user", Set.of());
+        sseEmitterRegistry.register("user", Set.of());
+
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("sse.connections.dropped").tag("reason", "user-limit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void refusesConnectionsBeyondNodeLimit() {
+        applicationProperties.getSse().setMaxConnectionsPerNode(1);
+        createRegistry();
+
+        sseEmitterRegistry.register("user", Set.of());
+
+        assertThatThrownBy(() -> sseEmitterRegistry.register("other", Set.of())).isInstanceOf(SseConnectionLimitException.class);
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.connections.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatKeepsActiveConnections() {
+        sseEmitterRegistry.register("user", Set.of());
+
+        sseEmitterRegistry.heartbeat();
+
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.connections.dropped").tag("reason", "idle").counter().count()).isZero();
+    }
+
+    @Test
+    void heartbeatEvictsIdleConnections() {
+        applicationProperties.getSse().setIdleTimeout(Duration.ZERO);
+        createRegistry();
+        sseEmitterRegistry.register("user", Set.of());
+
+        sseEmitterRegistry.heartbeat();
+
+        assertThat(meterRegistry.get("sse.connections").gauge().value()).isZero();
+        assertThat(meterRegistry.get("sse.connections.dropped").tag("reason", "idle").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void asksClientsToResyncWhenMissedEventsAreUnknown() {
+        sseEmitterRegistry.publish(SseMessage.toAll("event"));
+
+        sseEmitterRegistry.register("user", Set.of(), "previous-run-1");
+
+        assertThat(meterRegistry.get("sse.replay.resyncs").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("sse.replay.events").counter().count()).isZero();
+    }
+}
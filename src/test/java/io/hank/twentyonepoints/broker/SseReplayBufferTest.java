@@ -0,0 +1,44 @@
+package io.hank.twentyonepoints.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SseReplayBufferTest {
+
+    @Test
+    void returnsEventsAfterSequence() {
+        SseReplayBuffer replayBuffer = new SseReplayBuffer(10);
+        for (long sequence = 1; sequence <= 5; sequence++) {
+            replayBuffer.add(entry(sequence));
+        }
+
+        assertThat(replayBuffer.after(3)).hasValueSatisfying(entries ->
+            assertThat(entries).extracting(SseReplayBuffer.Entry::sequence).containsExactly(4L, 5L)
+        );
+        assertThat(replayBuffer.after(5)).hasValueSatisfying(entries -> assertThat(entries).isEmpty());
+    }
+
+    @Test
+    void detectsEvictedEvents() {
+        SseReplayBuffer replayBuffer = new SseReplayBuffer(2);
+        for (long sequence = 1; sequence <= 5; sequence++) {
+            replayBuffer.add(entry(sequence));
+        }
+
+        assertThat(replayBuffer.after(3)).isPresent();
+        assertThat(replayBuffer.after(2)).isEmpty();
+    }
+
+    @Test
+    void detectsUnknownSequences() {
+        SseReplayBuffer replayBuffer = new SseReplayBuffer(10);
+        replayBuffer.add(entry(1));
+
+        assertThat(replayBuffer.after(2)).isEmpty();
+    }
+
+    private static SseReplayBuffer.Entry entry(long sequence) {
+        return new SseReplayBuffer.Entry(sequence, SseMessage.toAll("event-" + sequence), SseEvent.data("event-" + sequence));
+    }
+}
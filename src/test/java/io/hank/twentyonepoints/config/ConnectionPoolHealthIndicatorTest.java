@@ -0,0 +1,86 @@
+package io.hank.twentyonepoints.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+class ConnectionPoolHealthIndicatorTest {
+
+    private HikariDataSource pool;
+
+    private ConnectionPoolHealthIndicator healthIndicator;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:connection-pool;DB_CLOSE_DELAY=-1");
+        pool.setPoolName("Hikari-test");
+        pool.setMaximumPoolSize(1);
+        pool.setConnectionTimeout(5000);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDatasource().getPool().setPendingThreshold(0);
+        // The pool is found behind the wrapping data source as well as on its own, and reported once
+        DataSource dataSource = new LazyConnectionDataSourceProxy(pool);
+        healthIndicator = new ConnectionPoolHealthIndicator(
+            new StaticListableBeanFactory(Map.of("dataSource", dataSource, "primaryDataSource", pool)).getBeanProvider(DataSource.class),
+            applicationProperties
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void reportsAPoolNotStartedYetAsUp() {
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).isEmpty();
+    }
+
+    @Test
+    void reportsTheConnectionsOfThePool() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            Health health = healthIndicator.health();
+
+            assertThat(health.getStatus()).isEqualTo(Status.UP);
+            assertThat(health.getDetails()).containsOnlyKeys("Hikari-test");
+            assertThat(health.getDetails().get("Hikari-test")).isEqualTo(new ConnectionPoolHealthIndicator.PoolState(1, 0, 0, 1));
+        }
+    }
+
+    @Test
+    void takesTheInstanceOutOfServiceWhileThePoolIsSaturated() throws Exception {
+        CompletableFuture<Void> waiting;
+        try (Connection connection = pool.getConnection()) {
+            waiting = CompletableFuture.runAsync(() -> {
+                try (Connection next = pool.getConnection()) {
+                    next.isValid(1);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            await().until(() -> pool.getHikariPoolMXBean().getThreadsAwaitingConnection() == 1);
+
+            assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        }
+        waiting.get();
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,113 @@
+package io.hank.twentyonepoints.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InstrumentedTaskExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final List<String> ran = new CopyOnWriteArrayList<>();
+
+    private InstrumentedTaskExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsTasksOverflowingTheQueue() {
+        createFullExecutor(ApplicationProperties.OverflowPolicy.ABORT);
+
+        assertThatThrownBy(() -> executor.execute(record("overflowing"))).isInstanceOf(RejectedExecutionException.class);
+
+        assertThat(overflowCount("rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void runsOverflowingTasksOnTheCallerThread() {
+        createFullExecutor(ApplicationProperties.OverflowPolicy.CALLER_RUNS);
+
+        executor.execute(() -> ran.add(Thread.currentThread().getName()));
+
+        assertThat(ran).containsExactly(Thread.currentThread().getName());
+        assertThat(overflowCount("caller-ran")).isEqualTo(1);
+    }
+
+    @Test
+    void dropsTheOldestQueuedTaskAndCancelsItsFuture() throws InterruptedException {
+        CompletableFuture<Void> queued = createFullExecutor(ApplicationProperties.OverflowPolicy.DROP_OLDEST);
+
+        executor.execute(record("overflowing"));
+        assertThat(queued).isCancelled();
+        release.countDown();
+
+        awaitCompletedTasks(2);
+        assertThat(ran).containsExactly("overflowing");
+        assertThat(overflowCount("dropped")).isEqualTo(1);
+    }
+
+    @Test
+    void buffersOverflowingTasksAndQueuesThemAgain() throws InterruptedException {
+        createFullExecutor(ApplicationProperties.OverflowPolicy.BUFFER);
+
+        executor.execute(record("overflowing"));
+        assertThat(meterRegistry.get("executor.buffer").tag("name", "test").gauge().value()).isEqualTo(1);
+        release.countDown();
+
+        awaitCompletedTasks(3);
+        assertThat(ran).containsExactly("queued", "overflowing");
+        assertThat(overflowCount("buffered")).isEqualTo(1);
+        assertThat(meterRegistry.get("executor").tag("name", "test").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("executor.idle").tag("name", "test").timer().count()).isEqualTo(3);
+    }
+
+    /**
+     * Create an executor with a single thread, busy until {@link #release} is counted down, and a queue of one task, full.
+     *
+     * @return the future of the queued task.
+     */
+    private CompletableFuture<Void> createFullExecutor(ApplicationProperties.OverflowPolicy overflowPolicy) {
+        executor = new InstrumentedTaskExecutor("test", meterRegistry, overflowPolicy, 10);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return executor.submitCompletable(record("queued"));
+    }
+
+    private Runnable record(String task) {
+        return () -> ran.add(task);
+    }
+
+    private double overflowCount(String outcome) {
+        return meterRegistry.get("executor.overflow").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitCompletedTasks(long tasks) throws InterruptedException {
+        while (executor.getThreadPoolExecutor().getCompletedTaskCount() < tasks) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.hank.twentyonepoints.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
+import java.time.Duration;
+import java.time.Instant;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaDataSourceConfigurationTest {
+
+    private HikariDataSource primaryDataSource;
+
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ChangeWatermarkService changeWatermarkService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1");
+        dataSourceProperties.setUsername("sa");
+        dataSourceProperties.afterPropertiesSet();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDatasource().getReplica().setUrl("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+        applicationProperties.getDatasource().getReplica().setMaximumPoolSize(2);
+        applicationProperties.getDatasource().getReplica().setMaxLag(Duration.ofSeconds(5));
+        changeWatermarkService = new ChangeWatermarkService(new ConcurrentMapCacheManager(), applicationProperties);
+
+        ReplicaDataSourceConfiguration configuration = new ReplicaDataSourceConfiguration();
+        primaryDataSource = configuration.primaryDataSource(dataSourceProperties);
+        replicaDataSource = configuration.replicaDataSource(dataSourceProperties, primaryDataSource, applicationProperties);
+        DataSource dataSource = configuration.dataSource(primaryDataSource, replicaDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryDataSource.close();
+        replicaDataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsRunOnTheReplica() {
+        transactionTemplate.setReadOnly(true);
+
+        assertThat(transactionTemplate.execute(status -> currentDatabase())).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void readOnlyTransactionsOfDataChangedWithinTheReplicaLagRunOnThePrimary() {
+        transactionTemplate.setReadOnly(true);
+
+        assertThat(
+            transactionTemplate.execute(status -> {
+                changeWatermarkService.routeReads(Instant.now());
+                return currentDatabase();
+            })
+        ).isEqualTo("PRIMARY");
+        assertThat(transactionTemplate.execute(status -> currentDatabase())).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void readOnlyTransactionsOfDataChangedBeforeTheReplicaLagRunOnTheReplica() {
+        transactionTemplate.setReadOnly(true);
+
+        assertThat(
+            transactionTemplate.execute(status -> {
+                changeWatermarkService.routeReads(Instant.now().minusSeconds(60));
+                return currentDatabase();
+            })
+        ).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void readWriteTransactionsRunOnThePrimary() {
+        assertThat(transactionTemplate.execute(status -> currentDatabase())).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void workOutsideTransactionsRunsOnThePrimary() {
+        assertThat(currentDatabase()).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void replicaPoolIsReadOnly() {
+        assertThat(replicaDataSource.isReadOnly()).isTrue();
+        assertThat(replicaDataSource.getPoolName()).isEqualTo("Hikari-replica");
+        assertThat(replicaDataSource.getUsername()).isEqualTo("sa");
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+}
@@ -0,0 +1,138 @@
+package io.hank.twentyonepoints.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class SqlStatementMetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private SqlStatementMetrics sqlStatementMetrics;
+
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties.Sql sql = new ApplicationProperties.Sql();
+        sql.setMaxStatementShapes(4);
+        sqlStatementMetrics = new SqlStatementMetrics(meterRegistry, sql);
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:sql-metrics;DB_CLOSE_DELAY=-1");
+        dataSource = (DataSource) SqlInstrumentationConfiguration.sqlInstrumentingDataSourcePostProcessor(
+            new StaticListableBeanFactory(Map.of("sqlStatementMetrics", sqlStatementMetrics)).getBeanProvider(SqlStatementMetrics.class)
+        ).postProcessAfterInitialization(h2DataSource, "dataSource");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table measured (id bigint primary key, name varchar(20))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table measured");
+    }
+
+    @Test
+    void normalizesLiteralsAndInLists() {
+        assertThat(SqlStatementMetrics.normalize("select *\n  from measured where id in (?, ?,?) and name = 'it''s' and id > 12"))
+            .isEqualTo("select * from measured where id in (?) and name = ? and id > ?");
+        assertThat(SqlStatementMetrics.normalize("select p1_0.id from points p1_0 where p1_0.user_id=?"))
+            .isEqualTo("select p1_0.id from points p1_0 where p1_0.user_id=?");
+    }
+
+    @Test
+    void measuresStatementsByShape() {
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 1L, "one");
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 2L, "two");
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 3L, "three");
+
+        jdbcTemplate.queryForList("select name from measured where id in (?, ?)", String.class, 1L, 2L);
+        jdbcTemplate.queryForList("select name from measured where id in (?)", String.class, 3L);
+
+        assertThat(timer("insert").count()).isEqualTo(3);
+        assertThat(rows("insert").totalAmount()).isEqualTo(3);
+        assertThat(timer("select").count()).isEqualTo(2);
+        assertThat(rows("select").totalAmount()).isEqualTo(3);
+        assertThat(sqlStatementMetrics.getShapes())
+            .extracting(SqlStatementMetrics.StatementShape::sql)
+            .contains("insert into measured (id, name) values (?, ?)", "select name from measured where id in (?)");
+    }
+
+    @Test
+    void countsTheStatementsOfARequest() {
+        jdbcTemplate.queryForList("select name from measured", String.class);
+        sqlStatementMetrics.startRequest();
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 1L, "one");
+        jdbcTemplate.queryForList("select name from measured", String.class);
+
+        SqlStatementMetrics.RequestStatements statements = sqlStatementMetrics.finishRequest();
+
+        assertThat(statements.statements).isEqualTo(2);
+        assertThat(sqlStatementMetrics.finishRequest().statements).isZero();
+    }
+
+    @Test
+    void identifiesShapesByTheDigestOfTheirSql() {
+        jdbcTemplate.queryForList("select name from measured", String.class);
+
+        assertThat(SqlStatementMetrics.idOf("select name from measured"))
+            .hasSize(16)
+            .isNotEqualTo(SqlStatementMetrics.idOf("select id from measured"));
+        assertThat(sqlStatementMetrics.getShapes())
+            .extracting(SqlStatementMetrics.StatementShape::id)
+            .contains(SqlStatementMetrics.idOf("select name from measured"));
+    }
+
+    @Test
+    void countsTheRowsReadThroughTheResultSet() throws SQLException {
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 1L, "one");
+        jdbcTemplate.update("insert into measured (id, name) values (?, ?)", 2L, "two");
+
+        try (
+            Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("select name from measured")
+        ) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getString(1)).isEqualTo("one");
+            assertThat(resultSet.unwrap(ResultSet.class)).isNotNull();
+        }
+
+        assertThat(rows("select").totalAmount()).isEqualTo(1);
+    }
+
+    @Test
+    void measuresShapesBeyondTheLimitAsOther() {
+        for (int column = 0; column < 6; column++) {
+            jdbcTemplate.queryForList("select name as c" + column + " from measured", String.class);
+        }
+
+        assertThat(sqlStatementMetrics.getShapes()).hasSize(5);
+        assertThat(meterRegistry.get("jdbc.statements").tag("statement", SqlStatementMetrics.OTHER).timer().count()).isEqualTo(3);
+    }
+
+    private Timer timer(String operation) {
+        return meterRegistry.get("jdbc.statements").tag("operation", operation).timer();
+    }
+
+    private DistributionSummary rows(String operation) {
+        return meterRegistry.get("jdbc.statements.rows").tag("operation", operation).summary();
+    }
+}
@@ -0,0 +1,158 @@
+package io.hank.twentyonepoints.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Compares the throughput and p99 latency of requests handled on a pool of platform threads, like the Undertow workers
+ * and the {@code @Async} executor, and on virtual threads, when every request reads the database and waits on a slow
+ * downstream service.
+ * <p>
+ * Each request lists points through MockMvc, the security filters and a transaction on the Hikari pool of the
+ * application, so it blocks on a real JDBC path. It then searches the points, and the search repository is stubbed to
+ * answer after {@link #DOWNSTREAM_DELAY}, like Elasticsearch or the userinfo endpoint of the IdP under load. The
+ * throughput and the p99 latency of both runs are logged, and the test fails when virtual threads do worse than the
+ * platform pool on either. Run with {@code ./gradlew benchmark} on Java 21 or later, and with {@code -Pprod} to read
+ * PostgreSQL rather than H2, whose driver pins virtual threads.
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@IntegrationTest
+@AutoConfigureMockMvc
+class VirtualThreadsBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadsBenchmarkTest.class);
+
+    private static final int REQUESTS = 2_000;
+
+    private static final int PLATFORM_POOL_SIZE = 200;
+
+    private static final int POINTS = 20;
+
+    private static final Duration DOWNSTREAM_DELAY = Duration.ofMillis(200);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PointsRepository pointsRepository;
+
+    @MockitoBean
+    private PointsSearchRepository pointsSearchRepository;
+
+    private List<Points> points;
+
+    @BeforeEach
+    void insertPoints() {
+        points = pointsRepository.saveAll(
+            IntStream.range(0, POINTS)
+                .mapToObj(day -> new Points().date(LocalDate.now().minusDays(day)).exercise(1).meals(1).alcohol(0))
+                .toList()
+        );
+        when(pointsSearchRepository.search(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            Thread.sleep(DOWNSTREAM_DELAY.toMillis());
+            return new PageImpl<>(points, invocation.getArgument(1), points.size());
+        });
+    }
+
+    @AfterEach
+    void deletePoints() {
+        pointsRepository.deleteAll(points);
+    }
+
+    @Test
+    void comparesPlatformAndVirtualThreadsWithASlowDownstream() {
+        // Warm up the pool, the caches and the JIT
+        run(new VirtualThreadTaskExecutor("benchmark-warmup-"));
+        ThreadPoolTaskExecutor platformExecutor = new ThreadPoolTaskExecutor();
+        platformExecutor.setCorePoolSize(PLATFORM_POOL_SIZE);
+        platformExecutor.setMaxPoolSize(PLATFORM_POOL_SIZE);
+        platformExecutor.setThreadNamePrefix("benchmark-platform-");
+        platformExecutor.initialize();
+        Result platform;
+        try {
+            platform = run(platformExecutor);
+        } finally {
+            platformExecutor.shutdown();
+        }
+        VirtualThreadTaskExecutor virtualExecutor = new VirtualThreadTaskExecutor("benchmark-virtual-");
+        Result virtual = run(virtualExecutor);
+
+        LOG.info("{} platform threads: {}", PLATFORM_POOL_SIZE, platform);
+        LOG.info("Virtual threads: {}", virtual);
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(virtual.throughput()).isGreaterThanOrEqualTo(platform.throughput());
+        assertThat(virtual.p99Millis()).isLessThanOrEqualTo(platform.p99Millis());
+    }
+
+    private Result run(Executor executor) {
+        List<CompletableFuture<Long>> requests = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            long submitted = System.nanoTime();
+            requests.add(CompletableFuture.supplyAsync(() -> handleRequest(submitted), executor));
+        }
+        List<Long> latencies = new ArrayList<>(requests.stream().map(CompletableFuture::join).toList());
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long failures = latencies.stream().filter(latency -> latency < 0).count();
+        Collections.sort(latencies);
+        return new Result(REQUESTS / elapsedSeconds, latencies.get((int) Math.ceil(REQUESTS * 0.99) - 1) / 1_000_000, failures);
+    }
+
+    private long handleRequest(long submitted) {
+        try {
+            if (status("/api/points?page=0&size=" + POINTS) != 200 || status("/api/points/_search?query=exercise:1") != 200) {
+                return -1;
+            }
+            return System.nanoTime() - submitted;
+        } catch (Exception e) {
+            LOG.warn("Request failed : {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    private int status(String uri) throws Exception {
+        return mockMvc.perform(get(uri).with(user("benchmark"))).andReturn().getResponse().getStatus();
+    }
+
+    private record Result(double throughput, long p99Millis, long failures) {
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, p99 %d ms, %d failures", throughput, p99Millis, failures);
+        }
+    }
+}
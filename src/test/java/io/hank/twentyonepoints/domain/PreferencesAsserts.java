@@ -48,7 +48,8 @@ public class PreferencesAsserts {
         assertThat(expected)
             .as("Verify Preferences relevant properties")
             .satisfies(e -> assertThat(e.getWeeklyGoal()).as("check weeklyGoal").isEqualTo(actual.getWeeklyGoal()))
-            .satisfies(e -> assertThat(e.getWeightUnits()).as("check weightUnits").isEqualTo(actual.getWeightUnits()));
+            .satisfies(e -> assertThat(e.getWeightUnits()).as("check weightUnits").isEqualTo(actual.getWeightUnits()))
+            .satisfies(e -> assertThat(e.getLeaderboardOptIn()).as("check leaderboardOptIn").isEqualTo(actual.getLeaderboardOptIn()));
     }
 
     /**
@@ -0,0 +1,114 @@
+package io.hank.twentyonepoints.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.Weight;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Measures the JDBC statements and round trips needed to insert 1,000 rows, checking that ids are allocated 50 at a
+ * time and that inserts are sent in batches rather than one by one.
+ */
+@IntegrationTest
+@Transactional
+class EntityWriteBatchingIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EntityWriteBatchingIT.class);
+
+    private static final int ROWS = 1_000;
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager em;
+
+    private JdbcCounter counter;
+
+    @BeforeEach
+    void countJdbcCalls() {
+        counter = new JdbcCounter();
+        em.unwrap(Session.class).addEventListeners(counter);
+    }
+
+    @Test
+    void insertingPointsIsBatched() {
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Points().date(LocalDate.of(2026, 1, 1).plusDays(i)).exercise(1).meals(1).alcohol(1));
+        }
+        em.flush();
+
+        assertRoundTrips("points");
+    }
+
+    @Test
+    void insertingWeightsIsBatched() {
+        for (int i = 0; i < ROWS; i++) {
+            em.persist(new Weight().timestamp(ZonedDateTime.parse("2026-01-01T08:00:00Z").plusDays(i)).weight(80.0));
+        }
+        em.flush();
+
+        assertRoundTrips("weight");
+    }
+
+    private void assertRoundTrips(String entity) {
+        LOG.info(
+            "Inserting {} {} rows: {} statements prepared, {} round trips ({} single statements, {} batches)",
+            ROWS,
+            entity,
+            counter.prepared,
+            counter.roundTrips(),
+            counter.statements,
+            counter.batches
+        );
+        // One sequence call per allocation, one batch per BATCH_SIZE rows, instead of a sequence call and an insert per row
+        assertThat(counter.statements).isLessThanOrEqualTo(ROWS / ALLOCATION_SIZE);
+        assertThat(counter.batches).isLessThanOrEqualTo(ROWS / BATCH_SIZE);
+        assertThat(counter.roundTrips()).isLessThanOrEqualTo(ROWS / ALLOCATION_SIZE + ROWS / BATCH_SIZE);
+    }
+
+    /**
+     * Counts the JDBC calls of a session: every executed statement and every executed batch is a round trip to the
+     * database.
+     */
+    private static final class JdbcCounter implements SessionEventListener {
+
+        private int prepared;
+
+        private int statements;
+
+        private int batches;
+
+        @Override
+        public void jdbcPrepareStatementStart() {
+            prepared++;
+        }
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            statements++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batches++;
+        }
+
+        int roundTrips() {
+            return statements + batches;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.hank.twentyonepoints.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Integration tests for {@link ClusterJobFence}.
+ */
+@IntegrationTest
+class ClusterJobFenceIT {
+
+    private static final String JOB = "fence-test";
+
+    @Autowired
+    private ClusterJobFence clusterJobFence;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void cleanup() {
+        new JdbcTemplate(dataSource).update("delete from cluster_job_fence where job = ?", JOB);
+    }
+
+    @Test
+    void advancesTheTokenOfAJobOnItsFirstRun() {
+        assertThat(clusterJobFence.advance(JOB, 3L)).isTrue();
+
+        assertThat(token()).isEqualTo(3L);
+    }
+
+    @Test
+    void letsTheSameRunWriteAgain() {
+        clusterJobFence.advance(JOB, 3L);
+
+        assertThat(clusterJobFence.advance(JOB, 3L)).isTrue();
+    }
+
+    @Test
+    void rejectsARunOlderThanTheLastOneWhichWrote() {
+        clusterJobFence.advance(JOB, 5L);
+
+        assertThat(clusterJobFence.advance(JOB, 4L)).isFalse();
+        assertThat(token()).isEqualTo(5L);
+    }
+
+    private Long token() {
+        return new JdbcTemplate(dataSource).queryForObject("select fencing_token from cluster_job_fence where job = ?", Long.class, JOB);
+    }
+}
@@ -0,0 +1,134 @@
+package io.hank.twentyonepoints.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RBucket;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RList;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+class ClusterJobRunnerTest {
+
+    private RFencedLock lock;
+
+    private RList<ClusterJobRun> history;
+
+    private RBucket<String> ranMarker;
+
+    private ClusterJobFence fence;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ClusterJobRunner clusterJobRunner;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        lock = mock(RFencedLock.class);
+        history = mock(RList.class);
+        ranMarker = mock(RBucket.class);
+        fence = mock(ClusterJobFence.class);
+        when(redissonClient.getFencedLock("jobs:lock:test")).thenReturn(lock);
+        when(redissonClient.<ClusterJobRun>getList(anyString(), any(Codec.class))).thenReturn(history);
+        when(redissonClient.<String>getBucket(eq("jobs:ran:test"), any(Codec.class))).thenReturn(ranMarker);
+        meterRegistry = new SimpleMeterRegistry();
+        clusterJobRunner = new ClusterJobRunner(redissonClient, fence, meterRegistry, new ObjectMapper(), new ApplicationProperties());
+    }
+
+    @Test
+    void runsJobUnderItsLock() {
+        when(lock.tryLockAndGetToken()).thenReturn(42L);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        AtomicLong fencingToken = new AtomicLong();
+
+        boolean ran = clusterJobRunner.run("test", execution -> fencingToken.set(execution.getFencingToken()));
+
+        assertThat(ran).isTrue();
+        assertThat(fencingToken).hasValue(42L);
+        verify(lock).unlock();
+        verify(ranMarker).set(anyString(), eq(Duration.ofMinutes(1)));
+        ArgumentCaptor<ClusterJobRun> run = ArgumentCaptor.forClass(ClusterJobRun.class);
+        verify(history).add(eq(0), run.capture());
+        verify(history).trim(0, 99);
+        assertThat(run.getValue().outcome()).isEqualTo(ClusterJobRun.Outcome.SUCCEEDED);
+        assertThat(run.getValue().fencingToken()).isEqualTo(42L);
+        assertThat(meterRegistry.get("jobs.runs").tag("job", "test").tag("outcome", "succeeded").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsJobRunningOnAnotherNode() {
+        when(lock.tryLockAndGetToken()).thenReturn(null);
+
+        boolean ran = clusterJobRunner.run("test", execution -> {
+            throw new AssertionError("Job should not run");
+        });
+
+        assertThat(ran).isFalse();
+        verify(lock, never()).unlock();
+        assertThat(meterRegistry.get("jobs.skipped").tag("job", "test").tag("reason", "running").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsJobJustRunByAnotherNode() {
+        when(lock.tryLockAndGetToken()).thenReturn(44L);
+        when(ranMarker.isExists()).thenReturn(true);
+
+        boolean ran = clusterJobRunner.run("test", execution -> {
+            throw new AssertionError("Job should not run");
+        });
+
+        assertThat(ran).isFalse();
+        verify(lock).unlock();
+        verify(history, never()).add(eq(0), any());
+        assertThat(meterRegistry.get("jobs.skipped").tag("job", "test").tag("reason", "ran").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fencesTheWritesOfTheJobWithItsToken() {
+        when(lock.tryLockAndGetToken()).thenReturn(45L);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        when(fence.advance("test", 45L)).thenReturn(false);
+
+        clusterJobRunner.run("test", ClusterJobExecution::fence);
+
+        ArgumentCaptor<ClusterJobRun> run = ArgumentCaptor.forClass(ClusterJobRun.class);
+        verify(history).add(eq(0), run.capture());
+        assertThat(run.getValue().outcome()).isEqualTo(ClusterJobRun.Outcome.FAILED);
+        assertThat(run.getValue().error()).contains("fencing token 45");
+    }
+
+    @Test
+    void recordsFailuresAndReleasesTheLock() {
+        when(lock.tryLockAndGetToken()).thenReturn(43L);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+
+        boolean ran = clusterJobRunner.run("test", execution -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(ran).isTrue();
+        verify(lock).unlock();
+        ArgumentCaptor<ClusterJobRun> run = ArgumentCaptor.forClass(ClusterJobRun.class);
+        verify(history).add(eq(0), run.capture());
+        assertThat(run.getValue().outcome()).isEqualTo(ClusterJobRun.Outcome.FAILED);
+        assertThat(run.getValue().error()).contains("boom");
+        assertThat(meterRegistry.get("jobs.runs").tag("job", "test").tag("outcome", "failed").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,97 @@
+package io.hank.twentyonepoints.scheduling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+
+/**
+ * Integration tests for {@link TimePartitionJob}, against the PostgreSQL container of the {@code testprod} profile: the
+ * tables are not partitioned on other databases, and the tests are skipped there.
+ */
+@IntegrationTest
+class TimePartitionJobIT {
+
+    private static final LocalDate FUTURE = LocalDate.of(2090, 1, 15);
+
+    private static final long POINTS_ID = 9_000_000_001L;
+
+    @Autowired
+    private TimePartitionJob timePartitionJob;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void requirePostgreSQL() throws Exception {
+        assumeTrue("PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (jdbcTemplate == null) {
+            return;
+        }
+        jdbcTemplate.update("delete from points where id = ?", POINTS_ID);
+        List<String> partitions = jdbcTemplate.queryForList(
+            "select tablename from pg_tables where tablename like ? or tablename like ? or tablename like ?",
+            String.class,
+            "points\\_2090\\_%",
+            "weight\\_2090\\_%",
+            "blood\\_pressure\\_2090\\_%"
+        );
+        partitions.forEach(partition -> jdbcTemplate.execute("drop table " + partition));
+    }
+
+    @Test
+    void migrationPartitionsTheTimeSeriesByMonth() {
+        assertThat(
+            jdbcTemplate.queryForList("select c.relname from pg_partitioned_table p join pg_class c on c.oid = p.partrelid", String.class)
+        ).contains("points", "weight", "blood_pressure");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        String month = String.format("%d_%02d", today.getYear(), today.getMonthValue());
+        assertThat(partitionsOf("points")).contains("points_default", "points_" + month);
+        assertThat(partitionsOf("weight")).contains("weight_default", "weight_" + month);
+        assertThat(partitionsOf("blood_pressure")).contains("blood_pressure_default", "blood_pressure_" + month);
+    }
+
+    @Test
+    void createsTheNextPartitionsAndMovesTheirRowsOutOfTheDefaultPartition() {
+        jdbcTemplate.update("insert into points (id, date, exercise, meals, alcohol) values (?, ?, 1, 1, 1)", POINTS_ID, FUTURE);
+        assertThat(partitionOf(POINTS_ID)).isEqualTo("points_default");
+
+        int created = timePartitionJob.createPartitions(FUTURE);
+
+        // The month of the day and the months ahead, for each of the three tables
+        assertThat(created).isEqualTo(3 * 4);
+        assertThat(partitionsOf("points")).contains("points_2090_01", "points_2090_04");
+        assertThat(partitionOf(POINTS_ID)).isEqualTo("points_2090_01");
+        assertThat(timePartitionJob.createPartitions(FUTURE)).isZero();
+    }
+
+    private List<String> partitionsOf(String table) {
+        return jdbcTemplate.queryForList(
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = ?::regclass",
+            String.class,
+            table
+        );
+    }
+
+    private String partitionOf(long pointsId) {
+        return jdbcTemplate.queryForObject("select tableoid::regclass::text from points where id = ?", String.class, pointsId);
+    }
+}
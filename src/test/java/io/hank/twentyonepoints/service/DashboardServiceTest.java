@@ -0,0 +1,127 @@
+package io.hank.twentyonepoints.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.hank.twentyonepoints.config.ApplicationProperties;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.WeightRepository;
+import io.hank.twentyonepoints.service.dto.DashboardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class DashboardServiceTest {
+
+    private static final String LOGIN = "dashboard-user";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Map<String, String> threads = new ConcurrentHashMap<>();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private PointsRepository pointsRepository;
+
+    private WeightRepository weightRepository;
+
+    private BloodPressureRepository bloodPressureRepository;
+
+    private PreferencesRepository preferencesRepository;
+
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        pointsRepository = mock(PointsRepository.class);
+        weightRepository = mock(WeightRepository.class);
+        bloodPressureRepository = mock(BloodPressureRepository.class);
+        preferencesRepository = mock(PreferencesRepository.class);
+        when(pointsRepository.sumPointsByUserLoginAndDateBetween(anyString(), any(), any())).thenAnswer(invocation -> {
+            threads.put("points", Thread.currentThread().getName());
+            release.await(5, TimeUnit.SECONDS);
+            return 3L;
+        });
+        when(weightRepository.findFirstByUserLoginOrderByTimestampDesc(LOGIN)).thenAnswer(invocation -> {
+            threads.put("weight", Thread.currentThread().getName());
+            return Optional.of(new Weight().weight(80.0));
+        });
+        when(bloodPressureRepository.findFirstByUserLoginOrderByTimestampDesc(LOGIN)).thenReturn(Optional.empty());
+        when(preferencesRepository.findSummaryByUserLogin(LOGIN)).thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        dashboardService.destroy();
+    }
+
+    @Test
+    void runsTheQueriesLeftInTheQueueOnTheRequestThread() {
+        // A single thread, busy with the points until released
+        createService(1, 10);
+
+        DashboardDTO dashboard = dashboardQueryReleasingThePoints();
+
+        assertThat(dashboard.weekPoints()).isEqualTo(3L);
+        assertThat(dashboard.latestWeight().getWeight()).isEqualTo(80.0);
+        assertThat(threads.get("points")).startsWith("dashboard-");
+        assertThat(threads.get("weight")).isEqualTo(Thread.currentThread().getName());
+        assertThat(sequentialQueries("timeout")).isEqualTo(2);
+    }
+
+    @Test
+    void runsTheQueriesRefusedByTheExecutorOnTheRequestThread() {
+        // A single thread and no queue: only the points run concurrently
+        createService(1, 0);
+
+        DashboardDTO dashboard = dashboardQueryReleasingThePoints();
+
+        assertThat(dashboard.latestWeight().getWeight()).isEqualTo(80.0);
+        assertThat(threads.get("weight")).isEqualTo(Thread.currentThread().getName());
+        assertThat(sequentialQueries("rejected")).isEqualTo(2);
+    }
+
+    private void createService(int poolSize, int queueCapacity) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getDashboard().setPoolSize(poolSize);
+        applicationProperties.getDashboard().setQueueCapacity(queueCapacity);
+        applicationProperties.getDashboard().setQueryTimeout(Duration.ofMillis(200));
+        dashboardService = new DashboardService(
+            pointsRepository,
+            weightRepository,
+            bloodPressureRepository,
+            preferencesRepository,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    private DashboardDTO dashboardQueryReleasingThePoints() {
+        // The points query waits for the other queries to be run, which only happens on the request thread
+        when(bloodPressureRepository.findFirstByUserLoginOrderByTimestampDesc(LOGIN)).thenAnswer(invocation -> {
+            release.countDown();
+            return Optional.empty();
+        });
+        return dashboardService.getDashboard(LOGIN);
+    }
+
+    private double sequentialQueries(String reason) {
+        return meterRegistry.get("dashboard.queries.sequential").tag("reason", reason).counter().count();
+    }
+}
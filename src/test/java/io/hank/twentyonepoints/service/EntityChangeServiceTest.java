@@ -0,0 +1,65 @@
+package io.hank.twentyonepoints.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
+
+class EntityChangeServiceTest {
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private StreamBridge streamBridge;
+
+    private EntityChangeService entityChangeService;
+
+    @BeforeEach
+    void setUp() {
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        streamBridge = mock(StreamBridge.class);
+        entityChangeService = new EntityChangeService(applicationEventPublisher, streamBridge);
+    }
+
+    @Test
+    void recordsChangesWithTheOwningUser() {
+        User user = new User();
+        user.setId("user-id");
+
+        entityChangeService.recordChange("points", 1L, EntityChangeEvent.Action.CREATED, user);
+
+        ArgumentCaptor<EntityChangeEvent> event = ArgumentCaptor.forClass(EntityChangeEvent.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().entityType()).isEqualTo("points");
+        assertThat(event.getValue().entityId()).isEqualTo(1L);
+        assertThat(event.getValue().action()).isEqualTo(EntityChangeEvent.Action.CREATED);
+        assertThat(event.getValue().userId()).isEqualTo("user-id");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendsChangesKeyedByUser() {
+        when(streamBridge.send(eq(EntityChangeService.ENTITY_CHANGES_BINDING_NAME), any(Object.class))).thenReturn(true);
+        EntityChangeEvent event = new EntityChangeEvent("points", 1L, EntityChangeEvent.Action.DELETED, "user-id", Instant.now());
+
+        entityChangeService.sendToKafka(event);
+
+        ArgumentCaptor<Message<EntityChangeEvent>> message = ArgumentCaptor.forClass(Message.class);
+        verify(streamBridge).send(eq(EntityChangeService.ENTITY_CHANGES_BINDING_NAME), message.capture());
+        assertThat(message.getValue().getPayload()).isEqualTo(event);
+        assertThat(message.getValue().getHeaders().get(KafkaHeaders.KEY)).isEqualTo("user-id".getBytes(StandardCharsets.UTF_8));
+    }
+}
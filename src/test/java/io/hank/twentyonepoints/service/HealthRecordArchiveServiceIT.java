@@ -0,0 +1,157 @@
+package io.hank.twentyonepoints.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.HealthRecordArchiveRepository;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.repository.WeightRepository;
+import io.hank.twentyonepoints.service.dto.ExportDTO;
+import io.hank.twentyonepoints.web.rest.UserResourceIT;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link HealthRecordArchiveService}.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@Transactional
+class HealthRecordArchiveServiceIT {
+
+    private static final String LOGIN = "archive-user";
+
+    private static final LocalDate CUTOFF = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsRepository pointsRepository;
+
+    @Autowired
+    private WeightRepository weightRepository;
+
+    @Autowired
+    private BloodPressureRepository bloodPressureRepository;
+
+    @Autowired
+    private HealthRecordArchiveRepository healthRecordArchiveRepository;
+
+    @Autowired
+    private HealthRecordArchiveService healthRecordArchiveService;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private User user;
+
+    private Points archivedPoints;
+
+    @BeforeEach
+    void createRecords() {
+        user = UserResourceIT.createEntity();
+        user.setLogin(LOGIN);
+        userRepository.saveAndFlush(user);
+        archivedPoints = pointsRepository.saveAndFlush(
+            new Points().date(CUTOFF.minusDays(10)).exercise(1).meals(1).alcohol(1).notes("old").user(user)
+        );
+        pointsRepository.saveAndFlush(new Points().date(CUTOFF).exercise(1).meals(0).alcohol(0).notes("kept").user(user));
+        weightRepository.saveAndFlush(new Weight().timestamp(CUTOFF.minusYears(1).atStartOfDay(ZoneOffset.UTC)).weight(90.0).user(user));
+        bloodPressureRepository.saveAndFlush(
+            new BloodPressure().timestamp(CUTOFF.atStartOfDay(ZoneOffset.UTC)).systolic(120).diastolic(80).user(user)
+        );
+    }
+
+    @Test
+    void archivesRecordsBeforeTheCutoff() {
+        int archived = healthRecordArchiveService.archiveRecordsBefore(CUTOFF, () -> true);
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(pointsRepository.findAllByUserLoginOrderByDateAsc(LOGIN)).extracting(Points::getNotes).containsExactly("kept");
+        assertThat(weightRepository.findAllByUserLoginOrderByTimestampAsc(LOGIN)).isEmpty();
+        assertThat(bloodPressureRepository.findAllByUserLoginOrderByTimestampAsc(LOGIN)).hasSize(1);
+        assertThat(healthRecordArchiveRepository.findAllByUserIdAndEntityTypeOrderByFromDateAsc(user.getId(), "points"))
+            .singleElement()
+            .satisfies(archive -> {
+                assertThat(archive.getRecordCount()).isEqualTo(1);
+                assertThat(archive.getFromDate()).isEqualTo(CUTOFF.minusDays(10));
+                assertThat(archive.getToDate()).isEqualTo(CUTOFF.minusDays(10));
+            });
+    }
+
+    @Test
+    void exportIncludesArchivedRecords() {
+        healthRecordArchiveService.archiveRecordsBefore(CUTOFF, () -> true);
+
+        ExportDTO export = healthRecordArchiveService.getExport(LOGIN);
+
+        assertThat(export.points()).extracting(Points::getNotes).containsExactly("old", "kept");
+        assertThat(export.weights()).extracting(Weight::getWeight).containsExactly(90.0);
+        assertThat(export.bloodPressures()).extracting(BloodPressure::getSystolic).containsExactly(120);
+    }
+
+    @Test
+    void stopsWhenTheJobMustNotProceed() {
+        int archived = healthRecordArchiveService.archiveRecordsBefore(CUTOFF, () -> false);
+
+        assertThat(archived).isZero();
+        assertThat(pointsRepository.findAllByUserLoginOrderByDateAsc(LOGIN)).hasSize(2);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithMockUser
+    void archivingChangesTheETagsOfTheArchivedRecords() throws Exception {
+        String listUrl = "/api/points?sort=id,desc";
+        String entityUrl = "/api/points/" + archivedPoints.getId();
+        try {
+            String listETag = restMockMvc
+                .perform(get(listUrl))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+            String entityETag = restMockMvc
+                .perform(get(entityUrl))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+            restMockMvc.perform(get(listUrl).header(HttpHeaders.IF_NONE_MATCH, listETag)).andExpect(status().isNotModified());
+
+            healthRecordArchiveService.archiveRecordsBefore(CUTOFF, () -> true);
+
+            restMockMvc.perform(get(listUrl).header(HttpHeaders.IF_NONE_MATCH, listETag)).andExpect(status().isOk());
+            restMockMvc.perform(get(entityUrl).header(HttpHeaders.IF_NONE_MATCH, entityETag)).andExpect(status().isNotFound());
+        } finally {
+            // Nothing is rolled back without the test transaction
+            pointsRepository.deleteAll(pointsRepository.findAllByUserLoginOrderByDateAsc(LOGIN));
+            weightRepository.deleteAll(weightRepository.findAllByUserLoginOrderByTimestampAsc(LOGIN));
+            bloodPressureRepository.deleteAll(bloodPressureRepository.findAllByUserLoginOrderByTimestampAsc(LOGIN));
+            for (String entityType : new String[] { "points", "weight", "blood_pressure" }) {
+                healthRecordArchiveRepository.deleteAll(
+                    healthRecordArchiveRepository.findAllByUserIdAndEntityTypeOrderByFromDateAsc(user.getId(), entityType)
+                );
+            }
+            userRepository.delete(user);
+        }
+    }
+}
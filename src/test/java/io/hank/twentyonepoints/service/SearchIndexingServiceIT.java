@@ -0,0 +1,64 @@
+package io.hank.twentyonepoints.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the search indexing from the entity change events, through the embedded Kafka and Elasticsearch.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.search.indexing-mode=kafka")
+class SearchIndexingServiceIT {
+
+    @Autowired
+    private PointsRepository pointsRepository;
+
+    @Autowired
+    private PointsSearchRepository pointsSearchRepository;
+
+    @Autowired
+    private EntityChangeService entityChangeService;
+
+    private Points points;
+
+    @AfterEach
+    public void cleanup() {
+        if (points != null) {
+            pointsRepository.deleteById(points.getId());
+            pointsSearchRepository.deleteById(points.getId());
+            points = null;
+        }
+    }
+
+    @Test
+    void indexesChangedEntities() {
+        points = pointsRepository.save(new Points().date(LocalDate.now()).exercise(1).meals(1).alcohol(1));
+        assertThat(pointsSearchRepository.findById(points.getId())).isEmpty();
+
+        entityChangeService.recordChange("points", points.getId(), EntityChangeEvent.Action.CREATED, null);
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> assertThat(pointsSearchRepository.findById(points.getId())).isPresent());
+    }
+
+    @Test
+    void removesDeletedEntities() {
+        points = pointsRepository.save(new Points().date(LocalDate.now()).exercise(1).meals(1).alcohol(1));
+        pointsSearchRepository.save(points);
+
+        entityChangeService.recordChange("points", points.getId(), EntityChangeEvent.Action.DELETED, null);
+
+        await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> assertThat(pointsSearchRepository.findById(points.getId())).isEmpty());
+    }
+}
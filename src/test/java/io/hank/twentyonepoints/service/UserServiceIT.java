@@ -1,13 +1,18 @@
 package io.hank.twentyonepoints.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.broker.CacheInvalidationBus;
 import io.hank.twentyonepoints.config.Constants;
 import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.UserRepository;
 import io.hank.twentyonepoints.repository.search.UserSearchRepository;
 import io.hank.twentyonepoints.security.AuthoritiesConstants;
+import io.hank.twentyonepoints.security.oauth2.CustomClaimConverter;
 import io.hank.twentyonepoints.service.dto.AdminUserDTO;
 import java.util.Collection;
 import java.util.Collections;
@@ -65,6 +70,9 @@ class UserServiceIT {
     @MockitoSpyBean
     private UserSearchRepository spiedUserSearchRepository;
 
+    @MockitoSpyBean
+    private CacheInvalidationBus cacheInvalidationBus;
+
     private User user;
 
     private Map<String, Object> userDetails;
@@ -171,6 +179,29 @@ class UserServiceIT {
         assertThat(userDTO.getLangKey()).isEqualTo("en");
     }
 
+    @Test
+    @Transactional
+    void testSyncOfAnUnchangedUserKeepsTheCachedUserInformation() {
+        userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+        userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+
+        verify(cacheInvalidationBus, never()).invalidate(any(), any());
+    }
+
+    @Test
+    @Transactional
+    void testSyncOfAChangedUserEvictsTheCachedUserInformationOfItsSubject() {
+        userDetails.put("uid", "johndoe-uid");
+        userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+        userDetails.put("family_name", "dupont");
+
+        AdminUserDTO userDTO = userService.getUserFromAuthentication(createMockOAuth2AuthenticationToken(userDetails));
+
+        assertThat(userDTO.getLastName()).isEqualTo("dupont");
+        assertThat(userRepository.findOneByLogin(DEFAULT_LOGIN)).hasValueSatisfying(u -> assertThat(u.getLastName()).isEqualTo("dupont"));
+        verify(cacheInvalidationBus).invalidate(CustomClaimConverter.USERS_CACHE, DEFAULT_LOGIN);
+    }
+
     private OAuth2AuthenticationToken createMockOAuth2AuthenticationToken(Map<String, Object> userDetails) {
         Collection<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
         UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken = new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,58 @@
+package io.hank.twentyonepoints.test.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.hank.twentyonepoints.config.SqlStatementCountFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Assertions on the JDBC statements run by a MockMvc request under {@code /api}, as counted by
+ * {@link SqlStatementCountFilter}:
+ *
+ * <pre>
+ * restPointsMockMvc.perform(get("/api/points?slice=true")).andExpect(status().isOk()).andExpect(statements(1));
+ * </pre>
+ *
+ * Entities loaded by the test in its own transaction are still in the persistence context during the request, and
+ * loading them again costs no statement: flush and clear the {@code EntityManager} before the request, so that lazy
+ * associations loaded one by one show up in the count.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {}
+
+    /**
+     * Assert the exact number of statements run by the request.
+     *
+     * @param expected the number of statements.
+     * @return the matcher.
+     */
+    public static ResultMatcher statements(int expected) {
+        return result ->
+            assertThat(statementsOf(result)).as("JDBC statements of %s", result.getRequest().getRequestURI()).isEqualTo(expected);
+    }
+
+    /**
+     * Assert that the request ran no more statements than a budget.
+     *
+     * @param budget the maximum number of statements.
+     * @return the matcher.
+     */
+    public static ResultMatcher atMostStatements(int budget) {
+        return result ->
+            assertThat(statementsOf(result)).as("JDBC statements of %s", result.getRequest().getRequestURI()).isLessThanOrEqualTo(budget);
+    }
+
+    /**
+     * Get the number of statements run by a request.
+     *
+     * @param result the result of the request.
+     * @return the number of statements.
+     */
+    public static int statementsOf(MvcResult result) {
+        Object statements = result.getRequest().getAttribute(SqlStatementCountFilter.STATEMENTS_ATTRIBUTE);
+        assertThat(statements).as("statement count of %s, which must be under /api", result.getRequest().getRequestURI()).isNotNull();
+        return (Integer) statements;
+    }
+}
@@ -0,0 +1,117 @@
+package io.hank.twentyonepoints.web.rest;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.BloodPressure;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.domain.Weight;
+import io.hank.twentyonepoints.repository.BloodPressureRepository;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.repository.WeightRepository;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link DashboardResource} REST controller.
+ * <p>
+ * The dashboard queries run on other threads, in transactions of their own: the tests commit their data, and delete it
+ * afterwards.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser("dashboard-user")
+class DashboardResourceIT {
+
+    private static final String API_URL = "/api/dashboard";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsRepository pointsRepository;
+
+    @Autowired
+    private WeightRepository weightRepository;
+
+    @Autowired
+    private BloodPressureRepository bloodPressureRepository;
+
+    @Autowired
+    private PreferencesRepository preferencesRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc restDashboardMockMvc;
+
+    @BeforeEach
+    void clearCachedPreferences() {
+        // Preferences saved by the tests publish no change, and would not clear the cache
+        Objects.requireNonNull(cacheManager.getCache(PreferencesRepository.PREFERENCES_BY_LOGIN_CACHE)).clear();
+    }
+
+    @AfterEach
+    void deleteData() {
+        for (String login : new String[] { "dashboard-user", "dashboard-other" }) {
+            pointsRepository.deleteAll(pointsRepository.findAllByUserLoginOrderByDateAsc(login));
+            weightRepository.deleteAll(weightRepository.findAllByUserLoginOrderByTimestampAsc(login));
+            bloodPressureRepository.deleteAll(bloodPressureRepository.findAllByUserLoginOrderByTimestampAsc(login));
+            preferencesRepository.findOneByUserLogin(login).ifPresent(preferencesRepository::delete);
+            userRepository.findOneByLogin(login).ifPresent(userRepository::delete);
+        }
+    }
+
+    @Test
+    void getDashboardOfCurrentUser() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin("dashboard-user");
+        userRepository.saveAndFlush(user);
+        User other = UserResourceIT.createEntity();
+        other.setLogin("dashboard-other");
+        userRepository.saveAndFlush(other);
+        pointsRepository.saveAndFlush(new Points().date(LocalDate.now()).exercise(1).meals(1).alcohol(1).user(user));
+        pointsRepository.saveAndFlush(new Points().date(LocalDate.now()).exercise(1).meals(1).alcohol(1).user(other));
+        ZonedDateTime now = ZonedDateTime.now();
+        weightRepository.saveAndFlush(new Weight().timestamp(now.minusDays(1)).weight(80.0).user(user));
+        weightRepository.saveAndFlush(new Weight().timestamp(now).weight(79.5).user(user));
+        bloodPressureRepository.saveAndFlush(new BloodPressure().timestamp(now).systolic(120).diastolic(80).user(user));
+        preferencesRepository.saveAndFlush(PreferencesResourceIT.createEntity().weeklyGoal(10).user(user));
+
+        restDashboardMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.weekPoints").value(3))
+            .andExpect(jsonPath("$.weeklyGoal").value(10))
+            .andExpect(jsonPath("$.goalProgress").value(30))
+            .andExpect(jsonPath("$.latestWeight.weight").value(79.5))
+            .andExpect(jsonPath("$.latestBloodPressure.systolic").value(120))
+            .andExpect(jsonPath("$.preferences.weeklyGoal").value(10));
+    }
+
+    @Test
+    void getEmptyDashboard() throws Exception {
+        restDashboardMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.weekPoints").value(0))
+            .andExpect(jsonPath("$.goalProgress").value(nullValue()))
+            .andExpect(jsonPath("$.latestWeight").value(nullValue()))
+            .andExpect(jsonPath("$.preferences").value(nullValue()));
+    }
+}
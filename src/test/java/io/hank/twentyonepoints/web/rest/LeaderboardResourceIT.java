@@ -0,0 +1,115 @@
+package io.hank.twentyonepoints.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.Preferences;
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.repository.PointsRepository;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.service.LeaderboardService;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link LeaderboardResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class LeaderboardResourceIT {
+
+    private static final String API_URL = "/api/leaderboard";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PreferencesRepository preferencesRepository;
+
+    @Autowired
+    private PointsRepository pointsRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private MockMvc restLeaderboardMockMvc;
+
+    @AfterEach
+    public void cleanup() {
+        redissonClient.getKeys().deleteByPattern("leaderboard:*");
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("leaderboard-second")
+    void ranksOptedInUsersByTheirPointsOfTheWeek() throws Exception {
+        User first = createPlayer("leaderboard-first", true, 2).getUser();
+        User second = createPlayer("leaderboard-second", true, 1).getUser();
+        User hidden = createPlayer("leaderboard-hidden", false, 3).getUser();
+        leaderboardService.refresh(first.getId());
+        leaderboardService.refresh(second.getId());
+        leaderboardService.refresh(hidden.getId());
+
+        restLeaderboardMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].rank").value(1))
+            .andExpect(jsonPath("$[0].login").value("leaderboard-first"))
+            .andExpect(jsonPath("$[0].points").value(6))
+            .andExpect(jsonPath("$[1].login").value("leaderboard-second"));
+
+        restLeaderboardMockMvc
+            .perform(get(API_URL + "/me"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rank").value(2))
+            .andExpect(jsonPath("$.points").value(3));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("leaderboard-leaving")
+    void removesUsersWhoOptOut() throws Exception {
+        Preferences preferences = createPlayer("leaderboard-leaving", true, 1);
+        leaderboardService.refresh(preferences.getUser().getId());
+        restLeaderboardMockMvc.perform(get(API_URL + "/me")).andExpect(status().isOk());
+
+        preferencesRepository.saveAndFlush(preferences.leaderboardOptIn(false));
+        leaderboardService.refresh(preferences.getUser().getId());
+
+        restLeaderboardMockMvc.perform(get(API_URL + "/me")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void refusesTooLargeSizes() throws Exception {
+        restLeaderboardMockMvc.perform(get(API_URL + "?size=101")).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Create a user with their preferences, and days of this week on which they scored all 3 points.
+     */
+    private Preferences createPlayer(String login, boolean leaderboardOptIn, int fullDays) {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(login);
+        userRepository.saveAndFlush(user);
+        for (int i = 0; i < fullDays; i++) {
+            pointsRepository.saveAndFlush(new Points().date(LocalDate.now()).exercise(1).meals(1).alcohol(1).user(user));
+        }
+        return preferencesRepository.saveAndFlush(PreferencesResourceIT.createEntity().leaderboardOptIn(leaderboardOptIn).user(user));
+    }
+}
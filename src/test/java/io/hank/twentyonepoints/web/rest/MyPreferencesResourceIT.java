@@ -0,0 +1,112 @@
+package io.hank.twentyonepoints.web.rest;
+
+import static io.hank.twentyonepoints.test.util.StatementBudget.statements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.domain.Preferences;
+import io.hank.twentyonepoints.domain.User;
+import io.hank.twentyonepoints.repository.PreferencesRepository;
+import io.hank.twentyonepoints.repository.UserRepository;
+import io.hank.twentyonepoints.service.PreferencesService;
+import io.hank.twentyonepoints.service.dto.EntityChangeEvent;
+import java.time.Instant;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link MyPreferencesResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(MyPreferencesResourceIT.LOGIN)
+class MyPreferencesResourceIT {
+
+    static final String LOGIN = "my-preferences-user";
+
+    private static final String API_URL = "/api/my-preferences";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PreferencesRepository preferencesRepository;
+
+    @Autowired
+    private PreferencesService preferencesService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc restMyPreferencesMockMvc;
+
+    private Cache cache;
+
+    @BeforeEach
+    void initTest() {
+        cache = Objects.requireNonNull(cacheManager.getCache(PreferencesRepository.PREFERENCES_BY_LOGIN_CACHE));
+        cache.clear();
+    }
+
+    @Test
+    @Transactional
+    void getMyPreferencesFromTheCache() throws Exception {
+        User user = UserResourceIT.createEntity();
+        user.setLogin(LOGIN);
+        userRepository.saveAndFlush(user);
+        Preferences preferences = preferencesRepository.saveAndFlush(PreferencesResourceIT.createEntity().weeklyGoal(15).user(user));
+
+        restMyPreferencesMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(preferences.getId().intValue()))
+            .andExpect(jsonPath("$.weeklyGoal").value(15))
+            .andExpect(jsonPath("$.user.login").value(LOGIN))
+            .andExpect(statements(1));
+
+        restMyPreferencesMockMvc
+            .perform(get(API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.weeklyGoal").value(15))
+            .andExpect(statements(0));
+    }
+
+    @Test
+    @Transactional
+    void getMissingPreferences() throws Exception {
+        restMyPreferencesMockMvc.perform(get(API_URL)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void preferencesChangesClearTheCache() {
+        cache.put(LOGIN, "cached");
+
+        preferencesService.onEntityChange(preferencesChange());
+
+        assertThat(cache.get(LOGIN)).isNull();
+    }
+
+    @Test
+    void preferencesChangesClearTheCacheBeforeTheyCommit() {
+        cache.put(LOGIN, "cached");
+
+        preferencesService.beforeEntityChangeCommit(preferencesChange());
+
+        assertThat(cache.get(LOGIN)).isNull();
+    }
+
+    private static EntityChangeEvent preferencesChange() {
+        return new EntityChangeEvent("preferences", 1L, EntityChangeEvent.Action.UPDATED, null, Instant.now());
+    }
+}
@@ -1,10 +1,13 @@
 package io.hank.twentyonepoints.web.rest;
 
 import static io.hank.twentyonepoints.domain.PointsAsserts.*;
+import static io.hank.twentyonepoints.test.util.StatementBudget.statements;
 import static io.hank.twentyonepoints.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -13,9 +16,11 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hank.twentyonepoints.IntegrationTest;
 import io.hank.twentyonepoints.domain.Points;
+import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.PointsRepository;
 import io.hank.twentyonepoints.repository.UserRepository;
 import io.hank.twentyonepoints.repository.search.PointsSearchRepository;
+import io.hank.twentyonepoints.service.ChangeWatermarkService;
 import jakarta.persistence.EntityManager;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -36,6 +41,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -87,6 +93,9 @@ class PointsResourceIT {
     @Autowired
     private PointsSearchRepository pointsSearchRepository;
 
+    @Autowired
+    private ChangeWatermarkService changeWatermarkService;
+
     @Autowired
     private EntityManager em;
 
@@ -231,6 +240,44 @@ class PointsResourceIT {
             .andExpect(jsonPath("$.[*].notes").value(hasItem(DEFAULT_NOTES)));
     }
 
+    @Test
+    @Transactional
+    void getAllPointsRunsASingleStatement() throws Exception {
+        // Initialize the database, with points of two users, so that loading the users one by one adds statements
+        User user = userRepository.saveAndFlush(UserResourceIT.createEntity());
+        User otherUser = userRepository.saveAndFlush(UserResourceIT.createEntity());
+        insertedPoints = pointsRepository.saveAndFlush(points.user(user));
+        Points otherPoints = pointsRepository.saveAndFlush(createEntity().user(otherUser));
+        em.clear();
+
+        // The points are listed with the login of their user, without loading the users
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[?(@.id == %d)].user.login", points.getId()).value(user.getLogin()))
+            .andExpect(jsonPath("$.[?(@.id == %d)].user.login", otherPoints.getId()).value(otherUser.getLogin()))
+            .andExpect(jsonPath("$.[?(@.id == %d)].user.email", points.getId()).doesNotExist())
+            .andExpect(statements(1));
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsAsASlice() throws Exception {
+        // Initialize the database
+        insertedPoints = pointsRepository.saveAndFlush(points);
+        Points otherPoints = pointsRepository.saveAndFlush(createEntity());
+        em.clear();
+
+        // The slice reads one more row to tell there is a next one, and does not count the points
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL + "?slice=true&page=0&size=1&sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(otherPoints.getId().intValue()))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("rel=\"next\"")))
+            .andExpect(statements(1));
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllPointsWithEagerRelationshipsIsEnabled() throws Exception {
         when(pointsRepositoryMock.findAllWithEagerRelationships(any())).thenReturn(new PageImpl(new ArrayList<>()));
@@ -267,6 +314,83 @@ class PointsResourceIT {
             .andExpect(jsonPath("$.notes").value(DEFAULT_NOTES));
     }
 
+    @Test
+    @Transactional
+    void getPointsRunsASingleStatement() throws Exception {
+        // Initialize the database, with a user to fetch along with the points
+        User user = userRepository.saveAndFlush(UserResourceIT.createEntity());
+        insertedPoints = pointsRepository.saveAndFlush(points.user(user));
+        em.clear();
+
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL_ID, points.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.user.login").value(user.getLogin()))
+            .andExpect(statements(1));
+    }
+
+    @Test
+    @Transactional
+    void getPointsWithMatchingETagIsNotModified() throws Exception {
+        // Initialize the database
+        insertedPoints = pointsRepository.saveAndFlush(points);
+
+        String eTag = restPointsMockMvc
+            .perform(get(ENTITY_API_URL_ID, points.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL_ID, points.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllPointsWithMatchingETagIsNotModified() throws Exception {
+        // Initialize the database
+        insertedPoints = pointsRepository.saveAndFlush(points);
+
+        String eTag = restPointsMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,asc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getChangedPointsIsModified() throws Exception {
+        // Initialize the database
+        insertedPoints = pointsRepository.saveAndFlush(points);
+
+        String eTag = restPointsMockMvc
+            .perform(get(ENTITY_API_URL_ID, points.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        changeWatermarkService.markChanged("points", points.getId());
+
+        restPointsMockMvc
+            .perform(get(ENTITY_API_URL_ID, points.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
     @Test
     @Transactional
     void getNonExistingPoints() throws Exception {
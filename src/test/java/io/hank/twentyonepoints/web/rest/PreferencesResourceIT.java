@@ -55,6 +55,9 @@ class PreferencesResourceIT {
     private static final Units DEFAULT_WEIGHT_UNITS = Units.KG;
     private static final Units UPDATED_WEIGHT_UNITS = Units.LB;
 
+    private static final Boolean DEFAULT_LEADERBOARD_OPT_IN = false;
+    private static final Boolean UPDATED_LEADERBOARD_OPT_IN = true;
+
     private static final String ENTITY_API_URL = "/api/preferences";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/preferences/_search";
@@ -94,7 +97,10 @@ class PreferencesResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Preferences createEntity() {
-        return new Preferences().weeklyGoal(DEFAULT_WEEKLY_GOAL).weightUnits(DEFAULT_WEIGHT_UNITS);
+        return new Preferences()
+            .weeklyGoal(DEFAULT_WEEKLY_GOAL)
+            .weightUnits(DEFAULT_WEIGHT_UNITS)
+            .leaderboardOptIn(DEFAULT_LEADERBOARD_OPT_IN);
     }
 
     /**
@@ -104,7 +110,10 @@ class PreferencesResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Preferences createUpdatedEntity() {
-        return new Preferences().weeklyGoal(UPDATED_WEEKLY_GOAL).weightUnits(UPDATED_WEIGHT_UNITS);
+        return new Preferences()
+            .weeklyGoal(UPDATED_WEEKLY_GOAL)
+            .weightUnits(UPDATED_WEIGHT_UNITS)
+            .leaderboardOptIn(UPDATED_LEADERBOARD_OPT_IN);
     }
 
     @BeforeEach
@@ -227,7 +236,8 @@ class PreferencesResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(preferences.getId().intValue())))
             .andExpect(jsonPath("$.[*].weeklyGoal").value(hasItem(DEFAULT_WEEKLY_GOAL)))
-            .andExpect(jsonPath("$.[*].weightUnits").value(hasItem(DEFAULT_WEIGHT_UNITS.toString())));
+            .andExpect(jsonPath("$.[*].weightUnits").value(hasItem(DEFAULT_WEIGHT_UNITS.toString())))
+            .andExpect(jsonPath("$.[*].leaderboardOptIn").value(hasItem(DEFAULT_LEADERBOARD_OPT_IN)));
     }
 
     @SuppressWarnings({ "unchecked" })
@@ -260,7 +270,8 @@ class PreferencesResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.id").value(preferences.getId().intValue()))
             .andExpect(jsonPath("$.weeklyGoal").value(DEFAULT_WEEKLY_GOAL))
-            .andExpect(jsonPath("$.weightUnits").value(DEFAULT_WEIGHT_UNITS.toString()));
+            .andExpect(jsonPath("$.weightUnits").value(DEFAULT_WEIGHT_UNITS.toString()))
+            .andExpect(jsonPath("$.leaderboardOptIn").value(DEFAULT_LEADERBOARD_OPT_IN));
     }
 
     @Test
@@ -284,7 +295,10 @@ class PreferencesResourceIT {
         Preferences updatedPreferences = preferencesRepository.findById(preferences.getId()).orElseThrow();
         // Disconnect from session so that the updates on updatedPreferences are not directly saved in db
         em.detach(updatedPreferences);
-        updatedPreferences.weeklyGoal(UPDATED_WEEKLY_GOAL).weightUnits(UPDATED_WEIGHT_UNITS);
+        updatedPreferences
+            .weeklyGoal(UPDATED_WEEKLY_GOAL)
+            .weightUnits(UPDATED_WEIGHT_UNITS)
+            .leaderboardOptIn(UPDATED_LEADERBOARD_OPT_IN);
 
         restPreferencesMockMvc
             .perform(
@@ -419,7 +433,10 @@ class PreferencesResourceIT {
         Preferences partialUpdatedPreferences = new Preferences();
         partialUpdatedPreferences.setId(preferences.getId());
 
-        partialUpdatedPreferences.weeklyGoal(UPDATED_WEEKLY_GOAL).weightUnits(UPDATED_WEIGHT_UNITS);
+        partialUpdatedPreferences
+            .weeklyGoal(UPDATED_WEEKLY_GOAL)
+            .weightUnits(UPDATED_WEIGHT_UNITS)
+            .leaderboardOptIn(UPDATED_LEADERBOARD_OPT_IN);
 
         restPreferencesMockMvc
             .perform(
@@ -539,7 +556,8 @@ class PreferencesResourceIT {
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(preferences.getId().intValue())))
             .andExpect(jsonPath("$.[*].weeklyGoal").value(hasItem(DEFAULT_WEEKLY_GOAL)))
-            .andExpect(jsonPath("$.[*].weightUnits").value(hasItem(DEFAULT_WEIGHT_UNITS.toString())));
+            .andExpect(jsonPath("$.[*].weightUnits").value(hasItem(DEFAULT_WEIGHT_UNITS.toString())))
+            .andExpect(jsonPath("$.[*].leaderboardOptIn").value(hasItem(DEFAULT_LEADERBOARD_OPT_IN)));
     }
 
     protected long getRepositoryCount() {
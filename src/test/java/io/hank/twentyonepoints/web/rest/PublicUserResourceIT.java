@@ -1,5 +1,6 @@
 package io.hank.twentyonepoints.web.rest;
 
+import static io.hank.twentyonepoints.test.util.StatementBudget.statements;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -8,6 +9,7 @@ import io.hank.twentyonepoints.domain.User;
 import io.hank.twentyonepoints.repository.UserRepository;
 import io.hank.twentyonepoints.repository.search.UserSearchRepository;
 import io.hank.twentyonepoints.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManager;
 import java.util.Objects;
 import java.util.Set;
 import org.junit.jupiter.api.AfterEach;
@@ -44,6 +46,9 @@ class PublicUserResourceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -82,4 +87,17 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].imageUrl").doesNotHaveJsonPath())
             .andExpect(jsonPath("$.[*].langKey").doesNotHaveJsonPath());
     }
+
+    @Test
+    @Transactional
+    void getAllPublicUsersDoesNotLoadTheAuthorities() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        em.clear();
+
+        restUserMockMvc
+            .perform(get("/api/users?sort=id,desc").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(statements(1));
+    }
 }
@@ -3,14 +3,21 @@ package io.hank.twentyonepoints.web.rest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.hank.twentyonepoints.IntegrationTest;
+import io.hank.twentyonepoints.broker.SseMessage;
 import io.hank.twentyonepoints.config.EmbeddedKafka;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
@@ -18,6 +25,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.cloud.stream.binder.test.InputDestination;
 import org.springframework.cloud.stream.binder.test.OutputDestination;
 import org.springframework.cloud.stream.binder.test.TestChannelBinderConfiguration;
+import org.springframework.http.MediaType;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.support.GenericMessage;
@@ -42,12 +50,47 @@ class TwentyOnePointsKafkaResourceIT {
     @Autowired
     private OutputDestination output;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Test
     void producesMessages() throws Exception {
         restMockMvc.perform(post("/api/twenty-one-points-kafka/publish?message=value-produce").with(csrf())).andExpect(status().isOk());
         assertThat(output.receive(1000, "binding-out-0").getPayload()).isEqualTo("value-produce".getBytes());
     }
 
+    @Test
+    void publishesBatchesAndReturnsOffsets() throws Exception {
+        MvcResult mvcResult = restMockMvc
+            .perform(
+                post("/api/twenty-one-points-kafka/publish-batch")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(List.of("batch-1", "batch-2", "batch-3")))
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        restMockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(3))
+            .andExpect(jsonPath("$[0].topic").value("binding-out-0"))
+            .andExpect(jsonPath("$[*].offset").isNotEmpty());
+    }
+
+    @Test
+    void refusesTooLargeBatches() throws Exception {
+        restMockMvc
+            .perform(
+                post("/api/twenty-one-points-kafka/publish-batch")
+                    .with(csrf())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsBytes(Collections.nCopies(1001, "batch")))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void producesPooledMessages() throws Exception {
         assertThat(output.receive(1500, "kafkaProducer-out-0").getPayload()).isEqualTo("kafka_producer".getBytes());
@@ -75,4 +118,106 @@ class TwentyOnePointsKafkaResourceIT {
         }
         fail("Expected content data:value-consume not received");
     }
+
+    @Test
+    void consumesMessagesOnEveryConnectionOfUser() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        map.put(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN_VALUE);
+        MessageHeaders headers = new MessageHeaders(map);
+        Message<String> testMessage = new GenericMessage<>("value-tabs", headers);
+        MvcResult firstTab = restMockMvc
+            .perform(get("/api/twenty-one-points-kafka/register"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult secondTab = restMockMvc
+            .perform(get("/api/twenty-one-points-kafka/register"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        for (int i = 0; i < 100; i++) {
+            input.send(testMessage);
+            Thread.sleep(100);
+            if (
+                firstTab.getResponse().getContentAsString().contains("data:value-tabs") &&
+                secondTab.getResponse().getContentAsString().contains("data:value-tabs")
+            ) {
+                restMockMvc.perform(get("/api/twenty-one-points-kafka/unregister"));
+                return;
+            }
+        }
+        fail("Expected content data:value-tabs not received on every connection");
+    }
+
+    @Test
+    void consumesMessagesTargetedAtUserOnly() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        map.put(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN_VALUE);
+        MessageHeaders headers = new MessageHeaders(map);
+        Message<String> otherUserMessage = new GenericMessage<>(
+            objectMapper.writeValueAsString(SseMessage.toUser("other-user", "value-other")),
+            headers
+        );
+        Message<String> userMessage = new GenericMessage<>(
+            objectMapper.writeValueAsString(SseMessage.toUser("user", "value-user")),
+            headers
+        );
+        MvcResult mvcResult = restMockMvc
+            .perform(get("/api/twenty-one-points-kafka/register"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        for (int i = 0; i < 100; i++) {
+            input.send(otherUserMessage);
+            input.send(userMessage);
+            Thread.sleep(100);
+            String content = mvcResult.getResponse().getContentAsString();
+            if (content.contains("data:value-user")) {
+                assertThat(content).doesNotContain("value-other");
+                restMockMvc.perform(get("/api/twenty-one-points-kafka/unregister"));
+                return;
+            }
+        }
+        fail("Expected content data:value-user not received");
+    }
+
+    @Test
+    void replaysMissedMessagesOnReconnect() throws Exception {
+        Map<String, Object> map = new HashMap<>();
+        map.put(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.TEXT_PLAIN_VALUE);
+        MessageHeaders headers = new MessageHeaders(map);
+        MvcResult firstConnection = restMockMvc
+            .perform(get("/api/twenty-one-points-kafka/register"))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        Pattern receivedEvent = Pattern.compile("id:(\\S+)\ndata:value-received");
+        String lastEventId = null;
+        for (int i = 0; i < 100 && lastEventId == null; i++) {
+            input.send(new GenericMessage<>("value-received", headers));
+            Thread.sleep(100);
+            Matcher matcher = receivedEvent.matcher(firstConnection.getResponse().getContentAsString());
+            while (matcher.find()) {
+                lastEventId = matcher.group(1);
+            }
+        }
+        assertThat(lastEventId).isNotNull();
+        restMockMvc.perform(get("/api/twenty-one-points-kafka/unregister"));
+
+        input.send(new GenericMessage<>("value-missed", headers));
+
+        MvcResult secondConnection = restMockMvc
+            .perform(get("/api/twenty-one-points-kafka/register").header("Last-Event-ID", lastEventId))
+            .andExpect(status().isOk())
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        for (int i = 0; i < 100; i++) {
+            Thread.sleep(100);
+            if (secondConnection.getResponse().getContentAsString().contains("data:value-missed")) {
+                restMockMvc.perform(get("/api/twenty-one-points-kafka/unregister"));
+                return;
+            }
+        }
+        fail("Expected content data:value-missed not replayed");
+    }
 }
@@ -0,0 +1,104 @@
+package io.hank.twentyonepoints.web.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RequestCoalescer requestCoalescer;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void identicalRequestsShareOneComputation() {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> requestCoalescer.coalesce("points", this::slowRead, 1L));
+        await().until(() -> computations.get() == 1);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> requestCoalescer.coalesce("points", this::slowRead, 1L));
+        await().until(() -> coalesced() == 1);
+        release.countDown();
+
+        assertThat(first.join()).isEqualTo("result 1");
+        assertThat(second.join()).isEqualTo("result 1");
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void differentParametersAreNotCoalesced() {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> requestCoalescer.coalesce("points", this::slowRead, 1L));
+        await().until(() -> computations.get() == 1);
+        release.countDown();
+        String second = requestCoalescer.coalesce("points", this::slowRead, 2L);
+
+        assertThat(first.join()).isEqualTo("result 1");
+        assertThat(second).isEqualTo("result 2");
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    void failuresAreSharedToo() {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> requestCoalescer.coalesce("points", this::failingRead));
+        await().until(() -> computations.get() == 1);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> requestCoalescer.coalesce("points", this::failingRead));
+        await().until(() -> coalesced() == 1);
+        release.countDown();
+
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    void nothingIsKeptOnceTheComputationEnds() {
+        release.countDown();
+
+        requestCoalescer.coalesce("points", this::slowRead, 1L);
+        requestCoalescer.coalesce("points", this::slowRead, 1L);
+
+        assertThat(computations).hasValue(2);
+        assertThat(meterRegistry.get("http.server.requests.coalescing").gauge().value()).isZero();
+    }
+
+    private String slowRead() {
+        int computation = computations.incrementAndGet();
+        awaitRelease();
+        return "result " + computation;
+    }
+
+    private String failingRead() {
+        computations.incrementAndGet();
+        awaitRelease();
+        throw new IllegalStateException("Read failed");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double coalesced() {
+        Counter counter = meterRegistry.find("http.server.requests.coalesced").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}